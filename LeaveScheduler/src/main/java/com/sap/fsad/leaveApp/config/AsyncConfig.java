@@ -2,8 +2,10 @@ package com.sap.fsad.leaveApp.config;
 
 import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -11,14 +13,31 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 @EnableAsync
 public class AsyncConfig {
 
+    // Same switch Spring Boot uses for Tomcat and @Scheduled; requires Java 21+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${app.async.virtual.concurrency-limit:200}")
+    private int virtualConcurrencyLimit;
+
     @Bean(name = "taskExecutor")
     public Executor taskExecutor() {
+        if (virtualThreadsEnabled) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("AppLog-");
+            executor.setVirtualThreads(true);
+            // Bounds concurrent DB writes so virtual threads cannot exhaust the connection pool
+            executor.setConcurrencyLimit(virtualConcurrencyLimit);
+            executor.setTaskDecorator(new ContextCopyingTaskDecorator());
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(5);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("AppLog-");
+        executor.setTaskDecorator(new ContextCopyingTaskDecorator());
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.sap.fsad.leaveApp.config;
+
+import java.util.Map;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Copies the caller's MDC and SecurityContext onto the thread that runs an
+ * async task, so logging and current-user lookups behave the same on platform
+ * and virtual threads.
+ */
+public class ContextCopyingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        return () -> {
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            SecurityContext previousContext = SecurityContextHolder.getContext();
+            try {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                } else {
+                    MDC.clear();
+                }
+                SecurityContextHolder.setContext(securityContext);
+                runnable.run();
+            } finally {
+                if (previousMdc != null) {
+                    MDC.setContextMap(previousMdc);
+                } else {
+                    MDC.clear();
+                }
+                SecurityContextHolder.setContext(previousContext);
+            }
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.sap.fsad.leaveApp.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.WebSocketGraphQlInterceptor;
+import org.springframework.graphql.server.WebSocketGraphQlRequest;
+import org.springframework.graphql.server.WebSocketSessionInfo;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.sap.fsad.leaveApp.exception.AuthenticationException;
+import com.sap.fsad.leaveApp.security.JwtTokenProvider;
+
+import io.jsonwebtoken.Claims;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authenticates graphql-ws connections from the "Authorization" entry of the
+ * connection_init payload, since browsers cannot set headers on a WebSocket
+ * handshake. The user ID is then exposed to every operation on the connection
+ * as a GraphQL context value.
+ */
+@Component
+public class GraphQLWebSocketAuthInterceptor implements WebSocketGraphQlInterceptor {
+
+    public static final String USER_ID_KEY = "userId";
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Override
+    public Mono<Object> handleConnectionInitialization(WebSocketSessionInfo sessionInfo,
+            Map<String, Object> connectionInitPayload) {
+        Object authorization = connectionInitPayload.get("Authorization");
+        String jwt = authorization != null ? authorization.toString().replace("Bearer ", "") : null;
+
+        Claims claims = StringUtils.hasText(jwt) ? tokenProvider.getValidatedClaims(jwt) : null;
+        if (claims == null) {
+            return Mono.error(new AuthenticationException("Invalid or missing JWT token"));
+        }
+
+        sessionInfo.getAttributes().put(USER_ID_KEY, Long.valueOf(claims.get("userId").toString()));
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if (request instanceof WebSocketGraphQlRequest webSocketRequest) {
+            Object userId = webSocketRequest.getSessionInfo().getAttributes().get(USER_ID_KEY);
+            if (userId != null) {
+                request.configureExecutionInput((input, builder) -> builder
+                        .graphQLContext(context -> context.put(USER_ID_KEY, userId))
+                        .build());
+            }
+        }
+        return chain.next(request);
+    }
+}
@@ -3,8 +3,11 @@ package com.sap.fsad.leaveApp.config;
 import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -21,6 +24,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
+
 import com.sap.fsad.leaveApp.security.JwtAuthenticationFilter;
 import com.sap.fsad.leaveApp.security.RateLimitingFilter;
 import com.sap.fsad.leaveApp.security.UserDetailsServiceImpl;
@@ -33,6 +38,9 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     JwtAuthenticationFilter jwtAuthenticationFilter() {
         return new JwtAuthenticationFilter();
@@ -40,7 +48,7 @@ public class SecurityConfig {
 
     @Bean
     PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -48,6 +56,22 @@ public class SecurityConfig {
         return new RateLimitingFilter();
     }
 
+    // Both filters run inside the security chain; stop Boot from also registering them as servlet filters
+    @Bean
+    FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(
+            JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    FilterRegistrationBean<RateLimitingFilter> rateLimitingFilterRegistration(RateLimitingFilter filter) {
+        FilterRegistrationBean<RateLimitingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
@@ -68,8 +92,11 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streaming responses (SSE) complete on an async dispatch after the request was authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/").permitAll()
                         .requestMatchers("/graphql").permitAll()
+                        .requestMatchers("/graphql-ws").permitAll()
                         .requestMatchers("/graphiql").permitAll()
                         .requestMatchers("/robots933456.txt").permitAll()
                         .requestMatchers("/api/auth/logout").authenticated()
@@ -79,6 +106,7 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/calendar-feeds/*/*.ics").permitAll()
                         .requestMatchers("/api/**").authenticated()
                         .requestMatchers("/api/notifications/**").authenticated()
                         .requestMatchers("/actuator/**").permitAll()
@@ -86,9 +114,10 @@ public class SecurityConfig {
                 .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
 
         // Add JWT filter, but exclude /h2-console/**
+        // Rate limiting runs after it so quotas can be keyed by the authenticated user
         http
                 .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
-                .addFilterBefore(rateLimitingFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterAfter(rateLimitingFilter(), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -18,11 +18,13 @@ import org.springframework.web.bind.annotation.RestController;
 import com.sap.fsad.leaveApp.dto.request.LeavePolicyRequest;
 import com.sap.fsad.leaveApp.dto.request.UserUpdateRequest;
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
+import com.sap.fsad.leaveApp.dto.response.CurrentUserLookupStats;
 import com.sap.fsad.leaveApp.dto.response.DashboardStatsResponse;
 import com.sap.fsad.leaveApp.dto.response.UserResponse;
 import com.sap.fsad.leaveApp.logging.LogOperation;
 import com.sap.fsad.leaveApp.model.LeavePolicy;
 import com.sap.fsad.leaveApp.model.enums.LeaveType;
+import com.sap.fsad.leaveApp.security.CurrentUserContext;
 import com.sap.fsad.leaveApp.service.AdminService;
 import com.sap.fsad.leaveApp.service.LeaveCreditService;
 import com.sap.fsad.leaveApp.service.UserService;
@@ -48,6 +50,9 @@ public class AdminController {
     @Autowired
     private LeaveCreditService leaveCreditService;
 
+    @Autowired
+    private CurrentUserContext currentUserContext;
+
     @GetMapping("/dashboard-stats")
     @Operation(summary = "Get admin dashboard statistics")
     @LogOperation(value = "VIEW_ADMIN_DASHBOARD", entityType = "Dashboard", includeResponseBody = false)
@@ -56,6 +61,12 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/metrics/current-user")
+    @Operation(summary = "Get current-user lookup statistics")
+    public ResponseEntity<CurrentUserLookupStats> getCurrentUserLookupStats() {
+        return ResponseEntity.ok(currentUserContext.getStats());
+    }
+
     @GetMapping("/users")
     @Operation(summary = "Get all users")
     @LogOperation(value = "VIEW_ALL_USERS", entityType = "User", includeResponseBody = false)
@@ -131,8 +142,11 @@ public class AdminController {
     @Operation(summary = "Get users managed by Specific Manager")
     @SecurityRequirement(name = "bearerAuth")
     @LogOperation(value = "VIEW_MANAGED_USERS", entityType = "User", includeResponseBody = false)
-    public ResponseEntity<List<UserResponse>> getManagedUsers(@RequestParam(required = false) Long managerId) {
-        List<UserResponse> users = userService.getUsersByManagerId(managerId);
+    public ResponseEntity<List<UserResponse>> getManagedUsers(@RequestParam(required = false) Long managerId,
+            @RequestParam(defaultValue = "false") boolean includeIndirect) {
+        List<UserResponse> users = includeIndirect
+                ? userService.getUsersByManagerId(managerId, true)
+                : userService.getUsersByManagerId(managerId);
         return ResponseEntity.ok(users);
     }
 }
\ No newline at end of file
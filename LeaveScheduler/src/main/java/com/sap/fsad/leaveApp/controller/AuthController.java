@@ -12,12 +12,14 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.sap.fsad.leaveApp.dto.request.LoginRequest;
 import com.sap.fsad.leaveApp.dto.request.PasswordChangeRequest;
+import com.sap.fsad.leaveApp.dto.request.RefreshTokenRequest;
 import com.sap.fsad.leaveApp.dto.request.RegisterRequest;
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
+import com.sap.fsad.leaveApp.dto.response.BulkRegistrationResponse;
 import com.sap.fsad.leaveApp.dto.response.JwtResponse;
 import com.sap.fsad.leaveApp.logging.LogOperation;
-import com.sap.fsad.leaveApp.model.User;
 import com.sap.fsad.leaveApp.service.AuthService;
+import com.sap.fsad.leaveApp.service.UserOnboardingService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -33,6 +35,9 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private UserOnboardingService userOnboardingService;
+
     @LogOperation("USER_LOGIN")
     @PostMapping("/login")
     @Operation(summary = "User login")
@@ -49,12 +54,13 @@ public class AuthController {
         return ResponseEntity.ok(new ApiResponse(true, "User registered successfully"));
     }
 
-    @LogOperation("USER_REGISTER_BATCH")
+    @LogOperation(value = "USER_REGISTER_BATCH", includeRequestBody = false, includeResponseBody = false)
     @PostMapping("/register/batch")
     @Operation(summary = "Batch user registration")
-    public ResponseEntity<ApiResponse> registerBatch(@Valid @RequestBody List<RegisterRequest> registerRequests) {
-        List<User> registeredUsers = authService.register(registerRequests);
-        return ResponseEntity.ok(new ApiResponse(true, "Successfully registered " + registeredUsers.size() + " users"));
+    public ResponseEntity<ApiResponse> registerBatch(@RequestBody List<RegisterRequest> registerRequests) {
+        BulkRegistrationResponse report = userOnboardingService.registerAll(registerRequests);
+        return ResponseEntity.ok(new ApiResponse(report.getFailed() == 0,
+                "Successfully registered " + report.getCreated() + " of " + report.getTotal() + " users", report));
     }
 
     @LogOperation("CHANGE_PASSWORD")
@@ -86,8 +92,18 @@ public class AuthController {
     @PostMapping("/logout")
     @Operation(summary = "User logout")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<ApiResponse> logout(HttpServletRequest request) {
-        authService.logout(request.getHeader("Authorization"));
+    public ResponseEntity<ApiResponse> logout(HttpServletRequest request,
+            @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+        String refreshToken = refreshTokenRequest != null ? refreshTokenRequest.getRefreshToken() : null;
+        authService.logout(request.getHeader("Authorization"), refreshToken);
         return ResponseEntity.ok(new ApiResponse(true, "User logged out successfully"));
     }
+
+    @LogOperation("TOKEN_REFRESH")
+    @PostMapping("/refresh")
+    @Operation(summary = "Exchange a refresh token for a new access token")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        JwtResponse response = authService.refresh(refreshTokenRequest.getRefreshToken());
+        return ResponseEntity.ok(response);
+    }
 }
\ No newline at end of file
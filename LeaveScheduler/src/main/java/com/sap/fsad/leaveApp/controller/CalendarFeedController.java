@@ -0,0 +1,104 @@
+package com.sap.fsad.leaveApp.controller;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.sap.fsad.leaveApp.dto.response.ApiResponse;
+import com.sap.fsad.leaveApp.dto.response.CalendarFeedTokenResponse;
+import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
+import com.sap.fsad.leaveApp.logging.LogOperation;
+import com.sap.fsad.leaveApp.model.User;
+import com.sap.fsad.leaveApp.model.enums.CalendarFeedScope;
+import com.sap.fsad.leaveApp.service.CalendarFeedService;
+import com.sap.fsad.leaveApp.service.CalendarFeedService.CalendarFeed;
+import com.sap.fsad.leaveApp.service.UserService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/calendar-feeds")
+@Tag(name = "Calendar Feeds", description = "iCalendar feeds of leave and holidays for calendar clients")
+public class CalendarFeedController {
+
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    @Autowired
+    private UserService userService;
+
+    @LogOperation(value = "ISSUE_CALENDAR_FEED_TOKEN", entityType = "CalendarFeedToken", includeResponseBody = false)
+    @PostMapping("/token")
+    @Operation(summary = "Issue a secret feed URL for calendar clients, replacing any earlier one")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<CalendarFeedTokenResponse> issueToken() {
+        return ResponseEntity.ok(calendarFeedService.issueToken(userService.getCurrentUser()));
+    }
+
+    @LogOperation(value = "REVOKE_CALENDAR_FEED_TOKEN", entityType = "CalendarFeedToken")
+    @DeleteMapping("/token")
+    @Operation(summary = "Revoke the current user's feed URL")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<ApiResponse> revokeToken() {
+        calendarFeedService.revokeToken(userService.getCurrentUser());
+        return ResponseEntity.ok(new ApiResponse(true, "Calendar feed revoked successfully"));
+    }
+
+    @GetMapping("/{token}/{scope}.ics")
+    @Operation(summary = "Get the user's (user.ics) or their department's (team.ics) leave and holidays as iCalendar; "
+            + "pass the X-Sync-Token of an earlier response as syncToken to get only the changes since")
+    public ResponseEntity<StreamingResponseBody> getFeed(@PathVariable String token, @PathVariable String scope,
+            @RequestParam(required = false) String syncToken, WebRequest request) {
+        CalendarFeedScope feedScope;
+        try {
+            feedScope = CalendarFeedScope.valueOf(scope.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("Calendar feed not found");
+        }
+        User user = calendarFeedService.resolveToken(token);
+        CalendarFeed feed = calendarFeedService.prepare(user, feedScope, syncToken);
+
+        // Also sets the ETag and Last-Modified headers of the response
+        long lastModified = feed.getLastModified() != null ? feed.getLastModified().toEpochMilli() : -1;
+        if (request.checkNotModified(feed.getETag(), lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header("X-Sync-Token", feed.getSyncToken())
+                    .build();
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            calendarFeedService.write(feed, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=" + feedScope.name().toLowerCase(Locale.ROOT)
+                        + ".ics")
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header("X-Sync-Token", feed.getSyncToken())
+                .body(body);
+    }
+}
@@ -0,0 +1,77 @@
+package com.sap.fsad.leaveApp.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.sap.fsad.leaveApp.logging.LogOperation;
+import com.sap.fsad.leaveApp.model.ImportJob;
+import com.sap.fsad.leaveApp.model.ImportRowError;
+import com.sap.fsad.leaveApp.model.enums.ImportType;
+import com.sap.fsad.leaveApp.service.ImportJobService;
+import com.sap.fsad.leaveApp.service.UserService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/imports")
+@Tag(name = "Data Imports", description = "Endpoints for importing users, holidays and balance adjustments from files")
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+public class ImportController {
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private UserService userService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload a CSV or XLSX file to import in the background")
+    @LogOperation(value = "SUBMIT_IMPORT", entityType = "ImportJob", includeRequestBody = false)
+    public ResponseEntity<ImportJob> submit(@RequestParam ImportType type, @RequestPart("file") MultipartFile file) {
+        ImportJob job = importJobService.submit(type, file, userService.getCurrentUser().getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping
+    @Operation(summary = "List the most recent import jobs")
+    public ResponseEntity<List<ImportJob>> getRecentJobs() {
+        return ResponseEntity.ok(importJobService.getRecentJobs());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get the status and progress of an import job")
+    public ResponseEntity<ImportJob> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(importJobService.getJob(id));
+    }
+
+    @GetMapping("/{id}/errors")
+    @Operation(summary = "Get the rows rejected by an import job")
+    public ResponseEntity<List<ImportRowError>> getErrors(@PathVariable String id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(importJobService.getErrors(id, page, size));
+    }
+
+    @PostMapping("/{id}/resume")
+    @Operation(summary = "Resume a failed import job from its last checkpoint")
+    @LogOperation(value = "RESUME_IMPORT", entityType = "ImportJob")
+    public ResponseEntity<ImportJob> resume(@PathVariable String id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.resume(id));
+    }
+}
@@ -5,6 +5,8 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,13 +16,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.sap.fsad.leaveApp.dto.request.LeaveApplicationRequest;
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
 import com.sap.fsad.leaveApp.dto.response.CalendarEventResponse;
+import com.sap.fsad.leaveApp.dto.response.CursorPageResponse;
 import com.sap.fsad.leaveApp.dto.response.LeaveBalanceResponse;
 import com.sap.fsad.leaveApp.dto.response.LeaveResponse;
 import com.sap.fsad.leaveApp.logging.LogOperation;
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
 import com.sap.fsad.leaveApp.model.enums.LeaveType;
 import com.sap.fsad.leaveApp.service.LeaveService;
 
@@ -73,6 +78,25 @@ public class LeaveController {
         return ResponseEntity.ok(leaves);
     }
 
+    @GetMapping("/team-conflicts")
+    @Operation(summary = "Get colleagues' pending and approved leaves that overlap a date range")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<List<CalendarEventResponse>> getTeamConflicts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(leaveService.getTeamConflicts(startDate, endDate));
+    }
+
+    @GetMapping("/absences")
+    @Operation(summary = "Get the pending and approved leaves of everyone out on a day, in one department "
+            + "(admins and its managers) or in all (admins)")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<List<CalendarEventResponse>> getAbsences(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String department) {
+        return ResponseEntity.ok(leaveService.getAbsences(date, department));
+    }
+
     @LogOperation(value = "GET_LEAVE_BY_ID", entityType = "LeaveApplication")
     @GetMapping("/{id}")
     @Operation(summary = "Get leave application by ID")
@@ -107,11 +131,26 @@ public class LeaveController {
     public ResponseEntity<List<LeaveResponse>> getLeaveHistory(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(required = false) LeaveType leaveType) {
-        List<LeaveResponse> history = leaveService.getLeaveHistory(startDate, endDate, leaveType);
+            @RequestParam(required = false) LeaveType leaveType,
+            @RequestParam(required = false) LeaveStatus status) {
+        List<LeaveResponse> history = leaveService.getLeaveHistory(startDate, endDate, leaveType, status);
         return ResponseEntity.ok(history);
     }
 
+    @LogOperation(value = "GET_LEAVE_HISTORY_PAGE", entityType = "LeaveApplication", includeResponseBody = false)
+    @GetMapping("/history/page")
+    @Operation(summary = "Get a page of the current user's leave history with optional filters, newest first")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<CursorPageResponse<LeaveResponse>> getLeaveHistoryPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) LeaveType leaveType,
+            @RequestParam(required = false) LeaveStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(leaveService.getLeaveHistoryPage(startDate, endDate, leaveType, status, cursor, size));
+    }
+
     @LogOperation(value = "GET_LEAVE_STATS", entityType = "LeaveApplication")
     @GetMapping("/stats")
     @Operation(summary = "Get current user's leave statistics")
@@ -129,8 +168,16 @@ public class LeaveController {
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) String department,
             @RequestParam(required = true) Integer month,
-            @RequestParam(required = true) Integer year) {
+            @RequestParam(required = true) Integer year,
+            WebRequest request) {
         List<CalendarEventResponse> events = leaveService.getCalendarEvents(userId, department, month, year);
-        return ResponseEntity.ok(events);
+        String eTag = leaveService.getCalendarETag(events);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(events);
     }
 }
\ No newline at end of file
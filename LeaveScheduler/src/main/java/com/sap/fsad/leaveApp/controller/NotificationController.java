@@ -3,17 +3,24 @@ package com.sap.fsad.leaveApp.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
+import com.sap.fsad.leaveApp.dto.response.CursorPageResponse;
+import com.sap.fsad.leaveApp.dto.response.NotificationResponse;
 import com.sap.fsad.leaveApp.logging.LogOperation;
 import com.sap.fsad.leaveApp.model.Notification;
 import com.sap.fsad.leaveApp.service.NotificationService;
+import com.sap.fsad.leaveApp.service.NotificationStreamService;
+import com.sap.fsad.leaveApp.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -27,6 +34,12 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
+    @Autowired
+    private UserService userService;
+
     @LogOperation(value = "GET_CURRENT_USER_NOTIFICATIONS", entityType = "Notification", includeResponseBody = false)
     @GetMapping
     @Operation(summary = "Get current user's notifications")
@@ -36,6 +49,17 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @LogOperation(value = "GET_NOTIFICATION_INBOX", entityType = "Notification", includeResponseBody = false)
+    @GetMapping("/inbox")
+    @Operation(summary = "Get a page of the current user's notifications, newest first")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<CursorPageResponse<NotificationResponse>> getCurrentUserInbox(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        return ResponseEntity.ok(notificationService.getCurrentUserInbox(cursor, size, unreadOnly));
+    }
+
     @LogOperation(value = "GET_UNREAD_NOTIFICATIONS", entityType = "Notification", includeResponseBody = false)
     @GetMapping("/unread")
     @Operation(summary = "Get current user's unread notifications")
@@ -71,4 +95,11 @@ public class NotificationController {
         notificationService.markAllNotificationsAsRead();
         return ResponseEntity.ok(new ApiResponse(true, "All notifications marked as read"));
     }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream new notifications and unread counts as server-sent events")
+    @SecurityRequirement(name = "bearerAuth")
+    public SseEmitter streamNotifications() {
+        return notificationStreamService.subscribe(userService.getCurrentUser().getId());
+    }
 }
\ No newline at end of file
@@ -1,23 +1,50 @@
 package com.sap.fsad.leaveApp.controller;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.sap.fsad.leaveApp.dto.request.LeaveAnalyticsFilter;
+import com.sap.fsad.leaveApp.dto.request.LeaveReportFilter;
+import com.sap.fsad.leaveApp.dto.request.ReportJobRequest;
+import com.sap.fsad.leaveApp.dto.response.AbsenceHeatmapResponse;
+import com.sap.fsad.leaveApp.dto.response.LeaveAnalyticsRow;
+import com.sap.fsad.leaveApp.dto.response.LeaveReportRow;
+import com.sap.fsad.leaveApp.dto.response.PageResponse;
 import com.sap.fsad.leaveApp.logging.LogOperation;
 import com.sap.fsad.leaveApp.model.Holiday;
-import com.sap.fsad.leaveApp.model.LeaveApplication;
+import com.sap.fsad.leaveApp.model.ReportJob;
+import com.sap.fsad.leaveApp.model.enums.AnalyticsDimension;
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+import com.sap.fsad.leaveApp.model.enums.ReportFormat;
+import com.sap.fsad.leaveApp.service.DepartmentCoverageService;
+import com.sap.fsad.leaveApp.service.LeaveAnalyticsCube;
+import com.sap.fsad.leaveApp.service.ReportJobService;
 import com.sap.fsad.leaveApp.service.ReportService;
+import com.sap.fsad.leaveApp.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -27,22 +54,71 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
-    @LogOperation(value = "GET_LEAVE_USAGE_REPORT", entityType = "Report")
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private LeaveAnalyticsCube leaveAnalyticsCube;
+
+    @Autowired
+    private DepartmentCoverageService departmentCoverageService;
+
+    @Autowired
+    private UserService userService;
+
+    @LogOperation(value = "GET_LEAVE_USAGE_REPORT", entityType = "Report", includeResponseBody = false)
     @GetMapping("/leave-usage")
-    @Operation(summary = "Get leave usage report")
+    @Operation(summary = "Get leave usage report, filtered and paged")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<List<LeaveApplication>> getLeaveUsageReport() {
-        List<LeaveApplication> report = reportService.getLeaveUsageReport();
-        return ResponseEntity.ok(report);
+    public ResponseEntity<PageResponse<LeaveReportRow>> getLeaveUsageReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) LeaveStatus status,
+            @RequestParam(required = false) LeaveType leaveType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        LeaveReportFilter filter = new LeaveReportFilter(startDate, endDate, department, status, leaveType);
+        return ResponseEntity.ok(PageResponse.of(reportService.getLeaveReport(filter, page, size)));
     }
 
-    @LogOperation(value = "GET_PENDING_APPROVALS_REPORT", entityType = "Report")
+    @LogOperation(value = "GET_PENDING_APPROVALS_REPORT", entityType = "Report", includeResponseBody = false)
     @GetMapping("/pending-approvals")
-    @Operation(summary = "Get pending approvals report")
+    @Operation(summary = "Get pending approvals report, filtered and paged")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<List<LeaveApplication>> getPendingApprovalsReport() {
-        List<LeaveApplication> report = reportService.getPendingApprovalsReport();
-        return ResponseEntity.ok(report);
+    public ResponseEntity<PageResponse<LeaveReportRow>> getPendingApprovalsReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) LeaveType leaveType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        LeaveReportFilter filter = new LeaveReportFilter(startDate, endDate, department, LeaveStatus.PENDING, leaveType);
+        return ResponseEntity.ok(PageResponse.of(reportService.getLeaveReport(filter, page, size)));
+    }
+
+    @GetMapping("/analytics")
+    @Operation(summary = "Get pre-aggregated leave counts and days, sliced and grouped by year, month, department, leave type and status")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<List<LeaveAnalyticsRow>> getLeaveAnalytics(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) LeaveType leaveType,
+            @RequestParam(required = false) LeaveStatus status,
+            @RequestParam(required = false) List<AnalyticsDimension> groupBy) {
+        LeaveAnalyticsFilter filter = new LeaveAnalyticsFilter(year, month, department, leaveType, status);
+        return ResponseEntity.ok(leaveAnalyticsCube.query(filter, groupBy));
+    }
+
+    @GetMapping("/absence-heatmap")
+    @Operation(summary = "Get per-day approved and pending absences and staffing coverage of a department")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<AbsenceHeatmapResponse> getAbsenceHeatmap(
+            @RequestParam String department,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(departmentCoverageService.getAbsenceHeatmap(department, startDate, endDate));
     }
 
     @LogOperation(value = "GET_HOLIDAY_SCHEDULE_REPORT", entityType = "Report")
@@ -54,31 +130,63 @@ public class ReportController {
         return ResponseEntity.ok(report);
     }
 
-    @LogOperation(value = "EXPORT_LEAVE_USAGE_EXCEL", entityType = "Report", async = false)
+    @LogOperation(value = "EXPORT_LEAVE_USAGE_EXCEL", entityType = "Report", async = false, includeResponseBody = false)
     @GetMapping("/leave-usage/export/excel")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Export leave usage report to Excel")
-    public ResponseEntity<byte[]> exportLeaveUsageToExcel() throws Exception {
-        List<LeaveApplication> report = reportService.getLeaveUsageReport();
-        byte[] excelData = reportService.exportLeaveUsageToExcel(report);
+    public ResponseEntity<StreamingResponseBody> exportLeaveUsageToExcel() {
+        // Written straight to the response as rows are read, instead of being buffered as a byte array
+        StreamingResponseBody body = out -> reportService.exportLeaveUsageToExcel(null, out);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=leave-usage.xlsx")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(excelData);
+                .body(body);
     }
 
-    @LogOperation(value = "EXPORT_LEAVE_USAGE_PDF", entityType = "Report", async = false)
+    @LogOperation(value = "EXPORT_LEAVE_USAGE_PDF", entityType = "Report", async = false, includeResponseBody = false)
     @GetMapping("/leave-usage/export/pdf")
     @Operation(summary = "Export leave usage report to PDF")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<byte[]> exportLeaveUsageToPDF() throws Exception {
-        List<LeaveApplication> report = reportService.getLeaveUsageReport();
-        byte[] pdfData = reportService.exportLeaveUsageToPDF(report);
+    public ResponseEntity<StreamingResponseBody> exportLeaveUsageToPDF() {
+        StreamingResponseBody body = out -> reportService.exportLeaveUsageToPDF(null, out);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=leave-usage.pdf")
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(pdfData);
+                .body(body);
+    }
+
+    @LogOperation(value = "SUBMIT_REPORT_JOB", entityType = "ReportJob")
+    @PostMapping("/jobs")
+    @Operation(summary = "Generate a leave usage export in the background")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<ReportJob> submitReportJob(@Valid @RequestBody ReportJobRequest request) {
+        ReportJob job = reportJobService.submit(request, userService.getCurrentUser().getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Get the status of a report job")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<ReportJob> getReportJob(@PathVariable String id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    @LogOperation(value = "DOWNLOAD_REPORT_JOB", entityType = "ReportJob", includeResponseBody = false)
+    @GetMapping("/jobs/{id}/download")
+    @Operation(summary = "Download the file of a finished report job")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<Resource> downloadReportJob(@PathVariable String id) {
+        ReportJob job = reportJobService.getJob(id);
+        Path file = reportJobService.getFile(job);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + reportJobService.getDownloadName(job))
+                .contentType(job.getFormat() == ReportFormat.PDF ? MediaType.APPLICATION_PDF
+                        : MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(job.getFileSize() != null ? job.getFileSize() : file.toFile().length())
+                .body(new FileSystemResource(file));
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.sap.fsad.leaveApp.dto.response.LeaveBalanceResponse;
@@ -66,8 +67,20 @@ public class UserController {
     @GetMapping("/managed")
     @Operation(summary = "Get managed users")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<List<UserResponse>> getManagedUsers() {
-        List<UserResponse> users = userService.getUsersByManagerId(userService.getCurrentUser().getId());
+    public ResponseEntity<List<UserResponse>> getManagedUsers(
+            @RequestParam(defaultValue = "false") boolean includeIndirect) {
+        Long managerId = userService.getCurrentUser().getId();
+        List<UserResponse> users = includeIndirect
+                ? userService.getUsersByManagerId(managerId, true)
+                : userService.getUsersByManagerId(managerId);
         return ResponseEntity.ok(users);
     }
+
+    @LogOperation("GET_DEPARTMENT_ROSTER")
+    @GetMapping("/department/{department}")
+    @Operation(summary = "Get the members of a department")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<List<UserResponse>> getDepartmentRoster(@PathVariable String department) {
+        return ResponseEntity.ok(userService.getDepartmentRoster(department));
+    }
 }
\ No newline at end of file
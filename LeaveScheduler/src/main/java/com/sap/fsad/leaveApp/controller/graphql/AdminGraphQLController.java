@@ -43,10 +43,13 @@ public class AdminGraphQLController {
     }
 
     @QueryMapping
-    public List<UserResponse> getManagedUsers(@Argument Long managerId) {
+    public List<UserResponse> getManagedUsers(@Argument Long managerId, @Argument Boolean includeIndirect) {
         if (managerId == null) {
             // If no managerId provided, get managed users of current user
-            return userService.getUsersByManagerId(userService.getCurrentUser().getId());
+            managerId = userService.getCurrentUser().getId();
+        }
+        if (Boolean.TRUE.equals(includeIndirect)) {
+            return userService.getUsersByManagerId(managerId, true);
         }
         return userService.getUsersByManagerId(managerId);
     }
@@ -3,7 +3,6 @@ package com.sap.fsad.leaveApp.controller.graphql;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
@@ -14,9 +13,11 @@ import com.sap.fsad.leaveApp.dto.request.LoginRequest;
 import com.sap.fsad.leaveApp.dto.request.PasswordChangeRequest;
 import com.sap.fsad.leaveApp.dto.request.RegisterRequest;
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
+import com.sap.fsad.leaveApp.dto.response.BulkRegistrationResponse;
 import com.sap.fsad.leaveApp.dto.response.JwtResponse;
 import com.sap.fsad.leaveApp.model.User;
 import com.sap.fsad.leaveApp.service.AuthService;
+import com.sap.fsad.leaveApp.service.UserOnboardingService;
 
 import io.swagger.v3.oas.annotations.Operation;
 
@@ -26,10 +27,23 @@ public class AuthGraphQLController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private UserOnboardingService userOnboardingService;
+
     @MutationMapping
     @Operation(summary = "Authenticate user and return JWT token")
     public ApiResponse login(@Argument("loginRequest") LoginRequest loginRequest) {
         JwtResponse jwtResponse = authService.login(loginRequest);
+        return new ApiResponse(true, "Login successful", toTokenData(jwtResponse));
+    }
+
+    @MutationMapping
+    public ApiResponse refreshToken(@Argument String refreshToken) {
+        JwtResponse jwtResponse = authService.refresh(refreshToken);
+        return new ApiResponse(true, "Token refreshed successfully", toTokenData(jwtResponse));
+    }
+
+    private Map<String, Object> toTokenData(JwtResponse jwtResponse) {
         Map<String, Object> tokenData = new HashMap<>();
         tokenData.put("token", jwtResponse.getToken());
         tokenData.put("type", jwtResponse.getType());
@@ -38,7 +52,9 @@ public class AuthGraphQLController {
         tokenData.put("fullName", jwtResponse.getFullName());
         tokenData.put("email", jwtResponse.getEmail());
         tokenData.put("roles", jwtResponse.getRoles());
-        return new ApiResponse(true, "Login successful", tokenData);
+        tokenData.put("refreshToken", jwtResponse.getRefreshToken());
+        tokenData.put("expiresIn", jwtResponse.getExpiresIn());
+        return tokenData;
     }
 
     @MutationMapping
@@ -49,10 +65,9 @@ public class AuthGraphQLController {
 
     @MutationMapping
     public ApiResponse registerBatch(@Argument("registerRequests") List<RegisterRequest> registerRequests) {
-        List<User> users = authService.register(registerRequests);
-        List<Long> userIds = users.stream().map(User::getId).collect(Collectors.toList());
-        return new ApiResponse(true, users.size() + " users registered successfully",
-                Map.of("userIds", userIds));
+        BulkRegistrationResponse report = userOnboardingService.registerAll(registerRequests);
+        return new ApiResponse(report.getFailed() == 0,
+                report.getCreated() + " of " + report.getTotal() + " users registered successfully", report);
     }
 
     @MutationMapping
@@ -73,7 +88,7 @@ public class AuthGraphQLController {
     }
 
     @MutationMapping
-    public ApiResponse logout(@Argument String token) {
-        return authService.logout(token);
+    public ApiResponse logout(@Argument String token, @Argument String refreshToken) {
+        return authService.logout(token, refreshToken);
     }
 }
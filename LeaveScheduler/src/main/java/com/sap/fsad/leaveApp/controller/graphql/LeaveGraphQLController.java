@@ -11,8 +11,11 @@ import org.springframework.stereotype.Controller;
 
 import com.sap.fsad.leaveApp.dto.request.LeaveApplicationRequest;
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
+import com.sap.fsad.leaveApp.dto.response.CalendarEventResponse;
+import com.sap.fsad.leaveApp.dto.response.CursorPageResponse;
 import com.sap.fsad.leaveApp.dto.response.LeaveBalanceResponse;
 import com.sap.fsad.leaveApp.dto.response.LeaveResponse;
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
 import com.sap.fsad.leaveApp.model.enums.LeaveType;
 import com.sap.fsad.leaveApp.service.LeaveService;
 import com.sap.fsad.leaveApp.service.UserService;
@@ -77,6 +80,16 @@ public class LeaveGraphQLController {
         return leaveService.getLeaveById(id);
     }
 
+    @QueryMapping
+    public List<CalendarEventResponse> teamConflicts(@Argument LocalDate startDate, @Argument LocalDate endDate) {
+        return leaveService.getTeamConflicts(startDate, endDate);
+    }
+
+    @QueryMapping
+    public List<CalendarEventResponse> absences(@Argument LocalDate date, @Argument String department) {
+        return leaveService.getAbsences(date, department);
+    }
+
     @MutationMapping
     public String withdrawLeave(@Argument Long id) {
         ApiResponse response = leaveService.withdrawLeave(id);
@@ -85,14 +98,25 @@ public class LeaveGraphQLController {
 
     @QueryMapping
     public List<LeaveResponse> getLeaveHistory() {
-        return leaveService.getLeaveHistory(null, null, null);
+        return leaveService.getLeaveHistory(null, null, null, null);
     }
 
     @QueryMapping
     public List<LeaveResponse> getLeaveHistoryWithFilters(@Argument LocalDate startDate, @Argument LocalDate endDate,
-            @Argument String leaveType) {
+            @Argument String leaveType, @Argument String status) {
+        LeaveType type = leaveType != null ? LeaveType.valueOf(leaveType) : null;
+        LeaveStatus leaveStatus = status != null ? LeaveStatus.valueOf(status) : null;
+        return leaveService.getLeaveHistory(startDate, endDate, type, leaveStatus);
+    }
+
+    @QueryMapping
+    public CursorPageResponse<LeaveResponse> leaveHistoryPage(@Argument LocalDate startDate,
+            @Argument LocalDate endDate, @Argument String leaveType, @Argument String status, @Argument String cursor,
+            @Argument Integer size) {
         LeaveType type = leaveType != null ? LeaveType.valueOf(leaveType) : null;
-        return leaveService.getLeaveHistory(startDate, endDate, type);
+        LeaveStatus leaveStatus = status != null ? LeaveStatus.valueOf(status) : null;
+        return leaveService.getLeaveHistoryPage(startDate, endDate, type, leaveStatus, cursor,
+                size != null ? size : 20);
     }
 
     @QueryMapping
@@ -9,6 +9,8 @@ import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
+import com.sap.fsad.leaveApp.dto.response.CursorPageResponse;
+import com.sap.fsad.leaveApp.dto.response.NotificationResponse;
 import com.sap.fsad.leaveApp.model.Notification;
 import com.sap.fsad.leaveApp.service.NotificationService;
 
@@ -23,6 +25,13 @@ public class NotificationGraphQLController {
         return notificationService.getCurrentUserNotifications();
     }
 
+    @QueryMapping
+    public CursorPageResponse<NotificationResponse> notificationInbox(@Argument String cursor, @Argument Integer size,
+            @Argument Boolean unreadOnly) {
+        return notificationService.getCurrentUserInbox(cursor, size != null ? size : 20,
+                unreadOnly != null && unreadOnly);
+    }
+
     @QueryMapping
     public List<Notification> unreadNotifications() {
         return notificationService.getCurrentUserUnreadNotifications();
@@ -1,13 +1,24 @@
 package com.sap.fsad.leaveApp.controller.graphql;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
+import com.sap.fsad.leaveApp.dto.request.LeaveAnalyticsFilter;
+import com.sap.fsad.leaveApp.dto.request.LeaveReportFilter;
+import com.sap.fsad.leaveApp.dto.response.AbsenceHeatmapResponse;
+import com.sap.fsad.leaveApp.dto.response.LeaveAnalyticsRow;
+import com.sap.fsad.leaveApp.dto.response.LeaveReportRow;
+import com.sap.fsad.leaveApp.dto.response.PageResponse;
 import com.sap.fsad.leaveApp.model.Holiday;
 import com.sap.fsad.leaveApp.model.LeaveApplication;
+import com.sap.fsad.leaveApp.model.enums.AnalyticsDimension;
+import com.sap.fsad.leaveApp.service.DepartmentCoverageService;
+import com.sap.fsad.leaveApp.service.LeaveAnalyticsCube;
 import com.sap.fsad.leaveApp.service.ReportService;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -19,6 +30,12 @@ public class ReportGraphQLController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private LeaveAnalyticsCube leaveAnalyticsCube;
+
+    @Autowired
+    private DepartmentCoverageService departmentCoverageService;
+
     @QueryMapping(name = "leaveUsageReport")
     public List<LeaveApplication> getLeaveUsageReport() {
         return reportService.getLeaveUsageReport();
@@ -29,6 +46,24 @@ public class ReportGraphQLController {
         return reportService.getPendingApprovalsReport();
     }
 
+    @QueryMapping(name = "leaveReport")
+    public PageResponse<LeaveReportRow> getLeaveReport(@Argument LeaveReportFilter filter, @Argument Integer page,
+            @Argument Integer size) {
+        return PageResponse.of(reportService.getLeaveReport(filter, page != null ? page : 0, size != null ? size : 50));
+    }
+
+    @QueryMapping(name = "leaveAnalytics")
+    public List<LeaveAnalyticsRow> getLeaveAnalytics(@Argument LeaveAnalyticsFilter filter,
+            @Argument List<AnalyticsDimension> groupBy) {
+        return leaveAnalyticsCube.query(filter, groupBy);
+    }
+
+    @QueryMapping(name = "absenceHeatmap")
+    public AbsenceHeatmapResponse getAbsenceHeatmap(@Argument String department, @Argument LocalDate startDate,
+            @Argument LocalDate endDate) {
+        return departmentCoverageService.getAbsenceHeatmap(department, startDate, endDate);
+    }
+
     @QueryMapping(name = "holidayScheduleReport")
     public List<Holiday> getHolidayScheduleReport() {
         return reportService.getHolidayScheduleReport();
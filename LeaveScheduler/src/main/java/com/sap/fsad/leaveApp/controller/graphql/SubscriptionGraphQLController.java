@@ -0,0 +1,38 @@
+package com.sap.fsad.leaveApp.controller.graphql;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.ContextValue;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+
+import com.sap.fsad.leaveApp.config.GraphQLWebSocketAuthInterceptor;
+import com.sap.fsad.leaveApp.dto.response.LeaveResponse;
+import com.sap.fsad.leaveApp.dto.response.NotificationResponse;
+import com.sap.fsad.leaveApp.service.LiveUpdateService;
+
+import reactor.core.publisher.Flux;
+
+@Controller
+public class SubscriptionGraphQLController {
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @SubscriptionMapping
+    public Flux<LeaveResponse> leaveStatusChanged(
+            @ContextValue(name = GraphQLWebSocketAuthInterceptor.USER_ID_KEY) Long userId) {
+        return liveUpdateService.leaveStatusChanges(userId);
+    }
+
+    @SubscriptionMapping
+    public Flux<LeaveResponse> pendingApprovalAdded(
+            @ContextValue(name = GraphQLWebSocketAuthInterceptor.USER_ID_KEY) Long userId) {
+        return liveUpdateService.pendingApprovals(userId);
+    }
+
+    @SubscriptionMapping
+    public Flux<NotificationResponse> notificationAdded(
+            @ContextValue(name = GraphQLWebSocketAuthInterceptor.USER_ID_KEY) Long userId) {
+        return liveUpdateService.notifications(userId);
+    }
+}
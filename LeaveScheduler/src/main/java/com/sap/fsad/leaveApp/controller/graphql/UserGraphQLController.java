@@ -31,4 +31,9 @@ public class UserGraphQLController {
     public List<LeaveBalanceResponse> getUserLeaveBalances(@Argument Long userId) {
         return userService.getUserLeaveBalances(userId);
     }
+
+    @QueryMapping
+    public List<UserResponse> getDepartmentRoster(@Argument String department) {
+        return userService.getDepartmentRoster(department);
+    }
 }
@@ -0,0 +1,22 @@
+package com.sap.fsad.leaveApp.dto.request;
+
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Slice of the leave analytics to aggregate; null fields match everything
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaveAnalyticsFilter {
+    private Integer year;
+    private Integer month;
+    private String department;
+    private LeaveType leaveType;
+    private LeaveStatus status;
+}
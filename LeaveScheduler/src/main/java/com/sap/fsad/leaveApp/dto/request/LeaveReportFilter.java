@@ -0,0 +1,25 @@
+package com.sap.fsad.leaveApp.dto.request;
+
+import java.time.LocalDate;
+
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional filters for leave reports; null fields are not applied. The date
+ * range matches leaves overlapping it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaveReportFilter {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String department;
+    private LeaveStatus status;
+    private LeaveType leaveType;
+}
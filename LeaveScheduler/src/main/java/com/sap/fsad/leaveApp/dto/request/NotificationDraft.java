@@ -0,0 +1,21 @@
+package com.sap.fsad.leaveApp.dto.request;
+
+import com.sap.fsad.leaveApp.model.enums.NotificationType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A notification to be inserted as part of a bulk write
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationDraft {
+    private Long userId;
+    private NotificationType type;
+    private String title;
+    private String message;
+    private Long relatedEntityId;
+}
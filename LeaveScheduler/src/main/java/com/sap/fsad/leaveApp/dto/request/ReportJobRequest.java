@@ -0,0 +1,21 @@
+package com.sap.fsad.leaveApp.dto.request;
+
+import com.sap.fsad.leaveApp.model.enums.ReportFormat;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A leave usage export to generate in the background
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportJobRequest {
+    @NotNull
+    private ReportFormat format;
+
+    private LeaveReportFilter filter;
+}
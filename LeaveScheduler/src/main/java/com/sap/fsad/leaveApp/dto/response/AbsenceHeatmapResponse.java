@@ -0,0 +1,41 @@
+package com.sap.fsad.leaveApp.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-day absence counts and staffing coverage of one department
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AbsenceHeatmapResponse {
+    private String department;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int headcount;
+    private double minimumCoverage;
+    private int daysBelowMinimum;
+    private List<DayCoverage> days;
+
+    /**
+     * Absences on one day. Coverage is the share of the headcount not on
+     * approved or pending leave; non-working days are never below minimum.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DayCoverage {
+        private LocalDate date;
+        private boolean workingDay;
+        private int approvedAbsences;
+        private int pendingAbsences;
+        private int available;
+        private double coverage;
+        private boolean belowMinimum;
+    }
+}
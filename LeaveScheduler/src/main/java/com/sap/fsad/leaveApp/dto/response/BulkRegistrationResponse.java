@@ -0,0 +1,32 @@
+package com.sap.fsad.leaveApp.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk registration, with one result per submitted row
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRegistrationResponse {
+    private int total; // Rows submitted
+    private int created; // Users created
+    private int failed; // Rows rejected or in a chunk that failed to commit
+    private List<RowResult> results = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowResult {
+        private int row; // Zero-based position in the request
+        private String username;
+        private boolean success;
+        private Long userId;
+        private String message;
+    }
+}
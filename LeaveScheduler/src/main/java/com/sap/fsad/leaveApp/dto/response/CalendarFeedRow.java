@@ -0,0 +1,27 @@
+package com.sap.fsad.leaveApp.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The columns of a leave that an iCalendar feed event is built from
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarFeedRow {
+    private Long id;
+    private String employeeName;
+    private LeaveType leaveType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LeaveStatus status;
+    private LocalDateTime updatedAt;
+}
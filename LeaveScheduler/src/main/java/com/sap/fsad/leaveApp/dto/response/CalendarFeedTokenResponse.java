@@ -0,0 +1,18 @@
+package com.sap.fsad.leaveApp.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A newly issued calendar feed token and the feed paths that use it. The
+ * token is shown only once.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarFeedTokenResponse {
+    private String token;
+    private String userFeedPath;
+    private String teamFeedPath;
+}
@@ -0,0 +1,18 @@
+package com.sap.fsad.leaveApp.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counters of current-user resolution since startup
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CurrentUserLookupStats {
+    private long totalLookups; // Calls to resolve the current user
+    private long databaseLoads; // Lookups that had to query the database
+    private long lookupsSaved; // Lookups served from the request-scoped context
+    private double savedRatio; // lookupsSaved / totalLookups
+}
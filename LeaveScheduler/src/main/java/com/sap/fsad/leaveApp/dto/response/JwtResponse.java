@@ -18,6 +18,9 @@ public class JwtResponse {
     private String fullName;
     private String email;
     private Set<UserRole> roles;
+    private String refreshToken;
+    // Access token lifetime in seconds
+    private Long expiresIn;
 
     public JwtResponse(String token, Long id, String username, String fullName, String email, Set<UserRole> roles) {
         this.token = token;
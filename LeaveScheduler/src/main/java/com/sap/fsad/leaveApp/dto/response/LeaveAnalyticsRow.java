@@ -0,0 +1,25 @@
+package com.sap.fsad.leaveApp.dto.response;
+
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Leave totals for one combination of the requested dimensions. Dimensions
+ * that were not grouped by are null.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaveAnalyticsRow {
+    private Integer year;
+    private Integer month;
+    private String department;
+    private LeaveType leaveType;
+    private LeaveStatus status;
+    private long leaveCount;
+    private long totalDays;
+}
@@ -0,0 +1,35 @@
+package com.sap.fsad.leaveApp.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One leave in a user's history, read as a projection so neither the
+ * applicant nor the approver is loaded as an entity
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaveHistoryRow {
+    private Long id;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LeaveType leaveType;
+    private String reason;
+    private String contactAddress;
+    private String contactPhone;
+    private LeaveStatus status;
+    private LocalDateTime appliedOn;
+    private Long approvedById;
+    private String approvedByName;
+    private LocalDateTime approvedOn;
+    private String remarks;
+    private Integer numberOfDays;
+}
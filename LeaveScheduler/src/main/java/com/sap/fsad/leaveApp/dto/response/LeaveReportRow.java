@@ -0,0 +1,31 @@
+package com.sap.fsad.leaveApp.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One leave in a report, holding only the columns reports show
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaveReportRow {
+    private Long id;
+    private Long userId;
+    private String employeeName;
+    private String department;
+    private LeaveType leaveType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer numberOfDays;
+    private LeaveStatus status;
+    private LocalDateTime appliedOn;
+    private String approvedByName;
+}
@@ -30,6 +30,7 @@ public class LeaveResponse {
     private String remarks;
     private Integer numberOfDays;
     private String attachmentPath;
+    private String coverageWarning;
 
     public static class LeaveStats {
         private float totalBalance;
@@ -0,0 +1,24 @@
+package com.sap.fsad.leaveApp.dto.response;
+
+import java.time.LocalDate;
+
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the leave usage export, read as a projection rather than as entities
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaveUsageRow {
+    private String employeeName;
+    private LeaveType leaveType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LeaveStatus status;
+}
@@ -0,0 +1,8 @@
+package com.sap.fsad.leaveApp.event;
+
+/**
+ * Published when holidays are created, changed or deleted, so cached holiday
+ * calendars are rebuilt
+ */
+public class HolidaysChangedEvent {
+}
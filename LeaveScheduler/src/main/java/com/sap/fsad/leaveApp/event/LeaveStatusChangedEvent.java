@@ -0,0 +1,19 @@
+package com.sap.fsad.leaveApp.event;
+
+import com.sap.fsad.leaveApp.dto.response.LeaveResponse;
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a leave application is created or changes status
+ */
+@Getter
+@AllArgsConstructor
+public class LeaveStatusChangedEvent {
+    private final Long userId;
+    private final Long managerId;
+    private final LeaveResponse leave;
+    private final LeaveStatus previousStatus; // null when the leave was just created
+}
@@ -0,0 +1,16 @@
+package com.sap.fsad.leaveApp.event;
+
+import com.sap.fsad.leaveApp.dto.response.NotificationResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a notification is persisted for a user
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationCreatedEvent {
+    private final Long userId;
+    private final NotificationResponse notification;
+}
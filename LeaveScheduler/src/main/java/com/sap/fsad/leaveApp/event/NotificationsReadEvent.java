@@ -0,0 +1,13 @@
+package com.sap.fsad.leaveApp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when one or more of a user's notifications are marked as read
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationsReadEvent {
+    private final Long userId;
+}
@@ -0,0 +1,14 @@
+package com.sap.fsad.leaveApp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a user is created or their manager, department, roles or
+ * active flag change, so the in-memory org hierarchy can be refreshed
+ */
+@Getter
+@AllArgsConstructor
+public class OrgStructureChangedEvent {
+    private final Long userId;
+}
@@ -0,0 +1,14 @@
+package com.sap.fsad.leaveApp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a user's roles, active flag or credentials change, so cached
+ * authentication state for that user can be discarded
+ */
+@Getter
+@AllArgsConstructor
+public class UserAccessChangedEvent {
+    private final Long userId;
+}
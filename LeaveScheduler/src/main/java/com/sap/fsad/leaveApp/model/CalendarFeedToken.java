@@ -0,0 +1,40 @@
+package com.sap.fsad.leaveApp.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Secret that lets calendar clients, which cannot send a bearer token, read a
+ * user's iCalendar feeds. Only the SHA-256 hash is stored and a user has at
+ * most one.
+ */
+@Entity
+@Table(name = "calendar_feed_tokens", indexes = {
+        @Index(name = "idx_calendar_feed_tokens_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_calendar_feed_tokens_user_id", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarFeedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,65 @@
+package com.sap.fsad.leaveApp.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sap.fsad.leaveApp.model.enums.ImportJobStatus;
+import com.sap.fsad.leaveApp.model.enums.ImportType;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A file import running in the background. Progress is saved after every
+ * committed chunk, and checkpointRow marks the last spreadsheet row already
+ * applied, so an interrupted job resumes after it.
+ */
+@Entity
+@Table(name = "import_jobs", indexes = {
+        @Index(name = "idx_import_jobs_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJob {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private ImportType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportJobStatus status;
+
+    @Column(length = 255)
+    private String fileName;
+
+    @JsonIgnore
+    @Column(length = 500)
+    private String filePath;
+
+    private long processedRows;
+
+    private long succeededRows;
+
+    private long failedRows;
+
+    // Last spreadsheet row (1-based, header included) whose chunk has been committed
+    private long checkpointRow;
+
+    @Column(length = 500)
+    private String message;
+
+    private Long createdBy;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+}
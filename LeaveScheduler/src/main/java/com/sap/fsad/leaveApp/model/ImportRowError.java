@@ -0,0 +1,36 @@
+package com.sap.fsad.leaveApp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row rejected by an import job
+ */
+@Entity
+@Table(name = "import_row_errors", indexes = {
+        @Index(name = "idx_import_row_errors_job_row", columnList = "jobId, rowNumber")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String jobId;
+
+    private long rowNumber;
+
+    @Column(length = 500)
+    private String message;
+
+    public ImportRowError(String jobId, long rowNumber, String message) {
+        this.jobId = jobId;
+        this.rowNumber = rowNumber;
+        this.message = message;
+    }
+}
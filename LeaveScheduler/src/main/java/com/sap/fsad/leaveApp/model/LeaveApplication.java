@@ -18,7 +18,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "leave_applications")
+@Table(name = "leave_applications", indexes = {
+        @Index(name = "idx_leave_applications_user_dates", columnList = "user_id, startDate, endDate"),
+        @Index(name = "idx_leave_applications_status_dates", columnList = "status, startDate, endDate"),
+        @Index(name = "idx_leave_applications_dates", columnList = "endDate, startDate"),
+        @Index(name = "idx_leave_applications_user_applied", columnList = "user_id, appliedOn, id"),
+        @Index(name = "idx_leave_applications_user_status", columnList = "user_id, status, appliedOn"),
+        @Index(name = "idx_leave_applications_status_applied", columnList = "status, appliedOn")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,7 +16,10 @@ import org.springframework.data.annotation.LastModifiedDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_read_created", columnList = "user_id, isRead, createdAt"),
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, createdAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,51 @@
+package com.sap.fsad.leaveApp.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A single-use refresh token. Only the SHA-256 hash is stored. Tokens issued
+ * from one login share a family ID, so presenting an already-used token
+ * revokes the whole family.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "familyId"),
+        @Index(name = "idx_refresh_tokens_expiry_date", columnList = "expiryDate")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiryDate;
+
+    private LocalDateTime usedAt;
+
+    private LocalDateTime revokedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,84 @@
+package com.sap.fsad.leaveApp.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+import com.sap.fsad.leaveApp.model.enums.ReportFormat;
+import com.sap.fsad.leaveApp.model.enums.ReportJobStatus;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A leave usage export generated in the background. Jobs with the same spec
+ * hash and data version produce the same file, so a finished one is reused
+ * until it expires.
+ */
+@Entity
+@Table(name = "report_jobs", indexes = {
+        @Index(name = "idx_report_jobs_spec", columnList = "specHash, dataVersion"),
+        @Index(name = "idx_report_jobs_status_expiry", columnList = "status, expiresAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJob {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ReportFormat format;
+
+    // Filters the report was requested with
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @Column(length = 50)
+    private String department;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private LeaveStatus leaveStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private LeaveType leaveType;
+
+    @Column(nullable = false, length = 64)
+    private String specHash;
+
+    // Snapshot of the leave and user data the report was generated from
+    @Column(nullable = false, length = 100)
+    private String dataVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportJobStatus status;
+
+    @JsonIgnore
+    @Column(length = 500)
+    private String filePath;
+
+    private Long fileSize;
+
+    @Column(length = 500)
+    private String message;
+
+    private Long createdBy;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,9 @@
+package com.sap.fsad.leaveApp.model.enums;
+
+public enum AnalyticsDimension {
+    YEAR,
+    MONTH,
+    DEPARTMENT,
+    LEAVE_TYPE,
+    STATUS
+}
@@ -0,0 +1,8 @@
+package com.sap.fsad.leaveApp.model.enums;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
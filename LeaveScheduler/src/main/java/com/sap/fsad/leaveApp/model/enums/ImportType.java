@@ -0,0 +1,7 @@
+package com.sap.fsad.leaveApp.model.enums;
+
+public enum ImportType {
+    USERS,
+    HOLIDAYS,
+    LEAVE_BALANCE_ADJUSTMENTS
+}
@@ -0,0 +1,6 @@
+package com.sap.fsad.leaveApp.model.enums;
+
+public enum ReportFormat {
+    EXCEL,
+    PDF
+}
@@ -0,0 +1,9 @@
+package com.sap.fsad.leaveApp.model.enums;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    EXPIRED
+}
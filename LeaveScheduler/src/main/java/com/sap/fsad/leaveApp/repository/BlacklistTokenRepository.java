@@ -2,9 +2,26 @@ package com.sap.fsad.leaveApp.repository;
 
 import com.sap.fsad.leaveApp.model.BlacklistedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
+
 @Repository
 public interface BlacklistTokenRepository extends JpaRepository<BlacklistedToken, Long> {
     boolean existsByToken(String token);
-}
\ No newline at end of file
+
+    List<BlacklistedToken> findByExpiryDateAfter(Date date);
+
+    List<BlacklistedToken> findByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Query("SELECT MAX(b.id) FROM BlacklistedToken b")
+    Long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM BlacklistedToken b WHERE b.expiryDate < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") Date cutoff);
+}
@@ -0,0 +1,22 @@
+package com.sap.fsad.leaveApp.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sap.fsad.leaveApp.model.CalendarFeedToken;
+
+@Repository
+public interface CalendarFeedTokenRepository extends JpaRepository<CalendarFeedToken, Long> {
+
+    @Query("SELECT t FROM CalendarFeedToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<CalendarFeedToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("DELETE FROM CalendarFeedToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,6 +1,7 @@
 package com.sap.fsad.leaveApp.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -22,5 +23,11 @@ public interface HolidayRepository extends JpaRepository<Holiday, Long> {
 
     boolean existsByDate(LocalDate date);
 
+    @Query("SELECT h.date FROM Holiday h WHERE h.date IN :dates")
+    List<LocalDate> findExistingDates(@Param("dates") Collection<LocalDate> dates);
+
     List<Holiday> findByIsRecurringTrue();
+
+    @Query("SELECT MAX(h.updatedAt), COUNT(h) FROM Holiday h")
+    List<Object[]> findVersion();
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.sap.fsad.leaveApp.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sap.fsad.leaveApp.model.ImportJob;
+import com.sap.fsad.leaveApp.model.enums.ImportJobStatus;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+    List<ImportJob> findByStatusInOrderByCreatedAtAsc(Collection<ImportJobStatus> statuses);
+
+    List<ImportJob> findTop50ByOrderByCreatedAtDesc();
+}
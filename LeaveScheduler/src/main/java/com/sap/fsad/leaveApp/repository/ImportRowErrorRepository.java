@@ -0,0 +1,14 @@
+package com.sap.fsad.leaveApp.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sap.fsad.leaveApp.model.ImportRowError;
+
+@Repository
+public interface ImportRowErrorRepository extends JpaRepository<ImportRowError, Long> {
+    List<ImportRowError> findByJobIdOrderByRowNumberAsc(String jobId, Pageable pageable);
+}
@@ -1,17 +1,31 @@
 package com.sap.fsad.leaveApp.repository;
 
+import com.sap.fsad.leaveApp.dto.response.CalendarFeedRow;
+import com.sap.fsad.leaveApp.dto.response.LeaveHistoryRow;
+import com.sap.fsad.leaveApp.dto.response.LeaveReportRow;
+import com.sap.fsad.leaveApp.dto.response.LeaveUsageRow;
 import com.sap.fsad.leaveApp.model.LeaveApplication;
 import com.sap.fsad.leaveApp.model.User;
 import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
 import com.sap.fsad.leaveApp.model.enums.LeaveType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface LeaveApplicationRepository extends JpaRepository<LeaveApplication, Long> {
@@ -38,7 +52,7 @@ public interface LeaveApplicationRepository extends JpaRepository<LeaveApplicati
                         @Param("endDate") LocalDate endDate,
                         @Param("userId") Long userId);
 
-        @Query("SELECT la FROM LeaveApplication la WHERE la.startDate BETWEEN :startDate AND :endDate OR la.endDate BETWEEN :startDate AND :endDate")
+        @Query("SELECT la FROM LeaveApplication la WHERE la.startDate <= :endDate AND la.endDate >= :startDate")
         List<LeaveApplication> findLeavesInDateRange(@Param("startDate") LocalDate startDate,
                         @Param("endDate") LocalDate endDate);
 
@@ -65,4 +79,198 @@ public interface LeaveApplicationRepository extends JpaRepository<LeaveApplicati
 
         @Query("SELECT l FROM LeaveApplication l WHERE l.user.department = :department")
         List<LeaveApplication> findByUserDepartment(@Param("department") String department);
+
+        /**
+         * Leave usage rows for export, filtered like findReportRows. A fetch
+         * size of Integer.MIN_VALUE makes Connector/J stream the rows one at a
+         * time, and the connection runs no other statement until the stream is
+         * closed. Must be consumed inside a transaction and closed afterwards.
+         */
+        @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+                        @QueryHint(name = HINT_READ_ONLY, value = "true") })
+        @Query("SELECT new com.sap.fsad.leaveApp.dto.response.LeaveUsageRow(u.fullName, la.leaveType, la.startDate, la.endDate, la.status) "
+                        + "FROM LeaveApplication la JOIN la.user u "
+                        + "WHERE (:startDate IS NULL OR la.endDate >= :startDate) "
+                        + "AND (:endDate IS NULL OR la.startDate <= :endDate) "
+                        + "AND (:department IS NULL OR u.department = :department) "
+                        + "AND (:status IS NULL OR la.status = :status) "
+                        + "AND (:leaveType IS NULL OR la.leaveType = :leaveType) "
+                        + "ORDER BY la.id")
+        Stream<LeaveUsageRow> streamLeaveUsage(@Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("department") String department,
+                        @Param("status") LeaveStatus status,
+                        @Param("leaveType") LeaveType leaveType);
+
+        /**
+         * Leaves intersecting [startDate, endDate] with the applicant's name,
+         * for one user, one department or everyone when both are null
+         */
+        @Query("SELECT new com.sap.fsad.leaveApp.dto.response.LeaveUsageRow(u.fullName, la.leaveType, la.startDate, la.endDate, la.status) "
+                        + "FROM LeaveApplication la JOIN la.user u "
+                        + "WHERE la.endDate >= :startDate AND la.startDate <= :endDate "
+                        + "AND (:userId IS NULL OR u.id = :userId) "
+                        + "AND (:department IS NULL OR u.department = :department) "
+                        + "ORDER BY la.startDate, la.id")
+        List<LeaveUsageRow> findCalendarRows(@Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("userId") Long userId,
+                        @Param("department") String department);
+
+        /**
+         * Latest change and number of leaves ending on or after a date, for one
+         * user or one department
+         */
+        @Query("SELECT MAX(la.updatedAt), COUNT(la) FROM LeaveApplication la JOIN la.user u "
+                        + "WHERE la.endDate >= :fromDate "
+                        + "AND (:userId IS NULL OR u.id = :userId) "
+                        + "AND (:department IS NULL OR u.department = :department)")
+        List<Object[]> findFeedVersion(@Param("fromDate") LocalDate fromDate,
+                        @Param("userId") Long userId,
+                        @Param("department") String department);
+
+        /**
+         * Leaves for an iCalendar feed ending on or after a date, for one user
+         * or one department. Without since only leaves in the given statuses
+         * are returned; with since every leave changed after it is. Streamed
+         * one row at a time like streamLeaveUsage. Must be consumed inside a
+         * transaction and closed afterwards.
+         */
+        @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+                        @QueryHint(name = HINT_READ_ONLY, value = "true") })
+        @Query("SELECT new com.sap.fsad.leaveApp.dto.response.CalendarFeedRow(la.id, u.fullName, la.leaveType, "
+                        + "la.startDate, la.endDate, la.status, la.updatedAt) "
+                        + "FROM LeaveApplication la JOIN la.user u "
+                        + "WHERE la.endDate >= :fromDate "
+                        + "AND (:userId IS NULL OR u.id = :userId) "
+                        + "AND (:department IS NULL OR u.department = :department) "
+                        + "AND ((:since IS NULL AND la.status IN :statuses) OR la.updatedAt > :since) "
+                        + "ORDER BY la.startDate, la.id")
+        Stream<CalendarFeedRow> streamCalendarFeed(@Param("fromDate") LocalDate fromDate,
+                        @Param("userId") Long userId,
+                        @Param("department") String department,
+                        @Param("statuses") Collection<LeaveStatus> statuses,
+                        @Param("since") LocalDateTime since);
+
+        /**
+         * Leave counts and day totals per start month, department, leave type
+         * and status
+         */
+        @Query("SELECT YEAR(la.startDate), MONTH(la.startDate), u.department, la.leaveType, la.status, "
+                        + "COUNT(la), COALESCE(SUM(la.numberOfDays), 0) "
+                        + "FROM LeaveApplication la JOIN la.user u "
+                        + "GROUP BY YEAR(la.startDate), MONTH(la.startDate), u.department, la.leaveType, la.status")
+        List<Object[]> aggregateByMonth();
+
+        /**
+         * Leave counts and day totals per status for the leaves of one
+         * department and leave type starting in the given range
+         */
+        @Query("SELECT la.status, COUNT(la), COALESCE(SUM(la.numberOfDays), 0) "
+                        + "FROM LeaveApplication la JOIN la.user u "
+                        + "WHERE la.status IN :statuses AND la.startDate >= :startDate AND la.startDate <= :endDate "
+                        + "AND la.leaveType = :leaveType "
+                        + "AND (u.department = :department OR (:department IS NULL AND u.department IS NULL)) "
+                        + "GROUP BY la.status")
+        List<Object[]> aggregateCells(@Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("department") String department,
+                        @Param("leaveType") LeaveType leaveType,
+                        @Param("statuses") Collection<LeaveStatus> statuses);
+
+        /**
+         * Start date, end date and status of the leaves of active members of a
+         * department that overlap the given range
+         */
+        @Query("SELECT la.startDate, la.endDate, la.status FROM LeaveApplication la JOIN la.user u "
+                        + "WHERE u.department = :department AND u.isActive = true "
+                        + "AND la.status IN :statuses "
+                        + "AND la.startDate <= :endDate AND la.endDate >= :startDate")
+        List<Object[]> findAbsenceSpans(@Param("department") String department,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("statuses") Collection<LeaveStatus> statuses);
+
+        /**
+         * Id, user, department, dates and status of every leave in the given
+         * statuses
+         */
+        @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+        @Query("SELECT la.id, u.id, u.department, la.startDate, la.endDate, la.status "
+                        + "FROM LeaveApplication la JOIN la.user u WHERE la.status IN :statuses")
+        List<Object[]> findLeaveSpans(@Param("statuses") Collection<LeaveStatus> statuses);
+
+        @Query("SELECT la.id, u.fullName, la.leaveType FROM LeaveApplication la JOIN la.user u WHERE la.id IN :ids")
+        List<Object[]> findLeaveLabels(@Param("ids") Collection<Long> ids);
+
+        @Query("SELECT MAX(la.updatedAt) FROM LeaveApplication la")
+        LocalDateTime findLatestUpdate();
+
+        /**
+         * Leaves matching the report filters, projected to the report columns
+         * in one query. Null parameters are not applied.
+         */
+        @Query(value = "SELECT new com.sap.fsad.leaveApp.dto.response.LeaveReportRow(la.id, u.id, u.fullName, u.department, "
+                        + "la.leaveType, la.startDate, la.endDate, la.numberOfDays, la.status, la.appliedOn, a.fullName) "
+                        + "FROM LeaveApplication la JOIN la.user u LEFT JOIN la.approvedBy a "
+                        + "WHERE (:startDate IS NULL OR la.endDate >= :startDate) "
+                        + "AND (:endDate IS NULL OR la.startDate <= :endDate) "
+                        + "AND (:department IS NULL OR u.department = :department) "
+                        + "AND (:status IS NULL OR la.status = :status) "
+                        + "AND (:leaveType IS NULL OR la.leaveType = :leaveType)",
+                        countQuery = "SELECT COUNT(la) FROM LeaveApplication la JOIN la.user u "
+                                        + "WHERE (:startDate IS NULL OR la.endDate >= :startDate) "
+                                        + "AND (:endDate IS NULL OR la.startDate <= :endDate) "
+                                        + "AND (:department IS NULL OR u.department = :department) "
+                                        + "AND (:status IS NULL OR la.status = :status) "
+                                        + "AND (:leaveType IS NULL OR la.leaveType = :leaveType)")
+        Page<LeaveReportRow> findReportRows(@Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("department") String department,
+                        @Param("status") LeaveStatus status,
+                        @Param("leaveType") LeaveType leaveType,
+                        Pageable pageable);
+
+        /**
+         * The first page of a user's leave history, newest application first.
+         * Null filters are not applied; the dates select leaves sharing a day
+         * with the range. Pass Pageable.unpaged() for the whole history.
+         */
+        @Query("SELECT new com.sap.fsad.leaveApp.dto.response.LeaveHistoryRow(la.id, la.startDate, la.endDate, "
+                        + "la.leaveType, la.reason, la.contactAddress, la.contactPhone, la.status, la.appliedOn, "
+                        + "a.id, a.fullName, la.approvedOn, la.remarks, la.numberOfDays) "
+                        + "FROM LeaveApplication la LEFT JOIN la.approvedBy a "
+                        + "WHERE la.user.id = :userId "
+                        + "AND (:startDate IS NULL OR la.endDate >= :startDate) "
+                        + "AND (:endDate IS NULL OR la.startDate <= :endDate) "
+                        + "AND (:leaveType IS NULL OR la.leaveType = :leaveType) "
+                        + "AND (:status IS NULL OR la.status = :status) "
+                        + "ORDER BY la.appliedOn DESC, la.id DESC")
+        List<LeaveHistoryRow> findHistoryFirstPage(@Param("userId") Long userId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("leaveType") LeaveType leaveType,
+                        @Param("status") LeaveStatus status,
+                        Pageable pageable);
+
+        @Query("SELECT new com.sap.fsad.leaveApp.dto.response.LeaveHistoryRow(la.id, la.startDate, la.endDate, "
+                        + "la.leaveType, la.reason, la.contactAddress, la.contactPhone, la.status, la.appliedOn, "
+                        + "a.id, a.fullName, la.approvedOn, la.remarks, la.numberOfDays) "
+                        + "FROM LeaveApplication la LEFT JOIN la.approvedBy a "
+                        + "WHERE la.user.id = :userId "
+                        + "AND (:startDate IS NULL OR la.endDate >= :startDate) "
+                        + "AND (:endDate IS NULL OR la.startDate <= :endDate) "
+                        + "AND (:leaveType IS NULL OR la.leaveType = :leaveType) "
+                        + "AND (:status IS NULL OR la.status = :status) "
+                        + "AND (la.appliedOn < :cursorAppliedOn "
+                        + "OR (la.appliedOn = :cursorAppliedOn AND la.id < :cursorId)) "
+                        + "ORDER BY la.appliedOn DESC, la.id DESC")
+        List<LeaveHistoryRow> findHistoryPageAfter(@Param("userId") Long userId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("leaveType") LeaveType leaveType,
+                        @Param("status") LeaveStatus status,
+                        @Param("cursorAppliedOn") LocalDateTime cursorAppliedOn,
+                        @Param("cursorId") Long cursorId,
+                        Pageable pageable);
 }
@@ -4,8 +4,11 @@ import com.sap.fsad.leaveApp.model.LeaveBalance;
 import com.sap.fsad.leaveApp.model.User;
 import com.sap.fsad.leaveApp.model.enums.LeaveType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +21,7 @@ public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long
     List<LeaveBalance> findByUserAndYear(User user, Integer year);
 
     List<LeaveBalance> findByYear(Integer year);
+
+    @Query("SELECT lb FROM LeaveBalance lb WHERE lb.user.id IN :userIds AND lb.year = :year")
+    List<LeaveBalance> findByUserIdInAndYear(@Param("userIds") Collection<Long> userIds, @Param("year") Integer year);
 }
\ No newline at end of file
@@ -20,5 +20,8 @@ public interface LeavePolicyRepository extends JpaRepository<LeavePolicy, Long>
     @Query("SELECT lp FROM LeavePolicy lp JOIN lp.applicableRoles ar WHERE ar = :role AND lp.isActive = true")
     List<LeavePolicy> findByApplicableRolesAndActive(@Param("role") UserRole role);
 
+    @Query("SELECT DISTINCT lp FROM LeavePolicy lp LEFT JOIN FETCH lp.applicableRoles WHERE lp.isActive = true")
+    List<LeavePolicy> findAllActiveWithRoles();
+
     Optional<LeavePolicy> findByLeaveTypeAndApplicableRolesContaining(LeaveType leaveType, UserRole userRole);
 }
\ No newline at end of file
@@ -3,10 +3,14 @@ package com.sap.fsad.leaveApp.repository;
 import com.sap.fsad.leaveApp.model.Notification;
 import com.sap.fsad.leaveApp.model.User;
 import com.sap.fsad.leaveApp.model.enums.NotificationType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -23,4 +27,38 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserOrderByCreatedAtDesc(User user);
 
     List<Notification> findByRelatedEntityId(Long entityId);
+
+    // Keyset pagination, newest first, ID breaks timestamp ties. The whole inbox is read through
+    // (user_id, created_at, id) and the unread inbox through (user_id, is_read, created_at)
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+            "AND (n.createdAt < :cursorCreatedAt OR (n.createdAt = :cursorCreatedAt AND n.id < :cursorId)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxPageAfter(@Param("userId") Long userId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = false " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadInboxFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = false " +
+            "AND (n.createdAt < :cursorCreatedAt OR (n.createdAt = :cursorCreatedAt AND n.id < :cursorId)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadInboxPageAfter(@Param("userId") Long userId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.updatedAt = :now WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.isRead = true AND n.updatedAt < :cutoff")
+    int deleteReadNotificationsUpdatedBefore(@Param("cutoff") LocalDateTime cutoff);
 }
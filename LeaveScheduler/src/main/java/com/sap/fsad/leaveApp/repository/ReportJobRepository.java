@@ -0,0 +1,24 @@
+package com.sap.fsad.leaveApp.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sap.fsad.leaveApp.model.ReportJob;
+import com.sap.fsad.leaveApp.model.enums.ReportJobStatus;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, String> {
+    Optional<ReportJob> findFirstBySpecHashAndDataVersionAndStatusInOrderByCreatedAtDesc(String specHash,
+            String dataVersion, Collection<ReportJobStatus> statuses);
+
+    List<ReportJob> findByStatusIn(Collection<ReportJobStatus> statuses);
+
+    List<ReportJob> findByStatusAndExpiresAtBefore(ReportJobStatus status, LocalDateTime time);
+
+    long deleteByStatusInAndCreatedAtBefore(Collection<ReportJobStatus> statuses, LocalDateTime time);
+}
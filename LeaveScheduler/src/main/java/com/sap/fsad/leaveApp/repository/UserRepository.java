@@ -3,10 +3,14 @@ package com.sap.fsad.leaveApp.repository;
 import com.sap.fsad.leaveApp.model.User;
 import com.sap.fsad.leaveApp.model.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,5 +42,64 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles LEFT JOIN FETCH u.manager WHERE u.manager.id = :managerId")
     List<User> findByManagerIdWithRoles(@Param("managerId") Long managerId);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles LEFT JOIN FETCH u.manager WHERE u.id = :id")
+    Optional<User> findByIdWithRolesAndManager(@Param("id") Long id);
+
+    List<User> findByUsernameIn(Collection<String> usernames);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Rows of [id, manager id, department, active] for the org hierarchy index
+     */
+    @Query("SELECT u.id, m.id, u.department, u.isActive FROM User u LEFT JOIN u.manager m")
+    List<Object[]> findOrgRows();
+
+    @Query("SELECT u.id, m.id, u.department, u.isActive FROM User u LEFT JOIN u.manager m WHERE u.id = :id")
+    List<Object[]> findOrgRowById(@Param("id") Long id);
+
+    @Query("SELECT u.id, r FROM User u JOIN u.roles r")
+    List<Object[]> findAllUserRoles();
+
+    @Query("SELECT r FROM User u JOIN u.roles r WHERE u.id = :id")
+    List<UserRole> findRolesByUserId(@Param("id") Long id);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username = :username")
+    Optional<User> findByUsernameWithRoles(@Param("username") String username);
+
+    /**
+     * Count a failed login and lock the account once the limit is reached, in
+     * one statement so concurrent failures are never lost. The counter is
+     * assigned last because MySQL evaluates SET clauses left to right.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET "
+            + "u.lockTime = CASE WHEN u.failedLoginAttempts + 1 >= :maxAttempts AND u.isAccountLocked = false "
+            + "THEN :now ELSE u.lockTime END, "
+            + "u.isAccountLocked = CASE WHEN u.failedLoginAttempts + 1 >= :maxAttempts THEN true ELSE u.isAccountLocked END, "
+            + "u.failedLoginAttempts = u.failedLoginAttempts + 1 "
+            + "WHERE u.id = :userId")
+    int recordFailedLogin(@Param("userId") Long userId, @Param("maxAttempts") int maxAttempts,
+            @Param("now") Long now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :userId")
+    int updatePassword(@Param("userId") Long userId, @Param("password") String password);
     // ...existing code...
+
+    @Query("SELECT MAX(u.updatedAt) FROM User u")
+    LocalDateTime findLatestUpdate();
 }
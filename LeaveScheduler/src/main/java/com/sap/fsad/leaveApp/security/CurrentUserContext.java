@@ -0,0 +1,79 @@
+package com.sap.fsad.leaveApp.security;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.sap.fsad.leaveApp.dto.response.CurrentUserLookupStats;
+import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
+import com.sap.fsad.leaveApp.model.User;
+import com.sap.fsad.leaveApp.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Resolves the current user once per request, with roles and manager fetched
+ * together, and hands the same entity to every service that asks for it.
+ * GraphQL queries over HTTP execute inside their request, so all resolvers of
+ * one operation share the entry. Outside a request the user is loaded on every
+ * call.
+ */
+@Component
+public class CurrentUserContext {
+
+    private static final String CURRENT_USER_ATTRIBUTE = CurrentUserContext.class.getName() + ".USER";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder databaseLoads = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    public User get(Long userId) {
+        return resolve(userId, user -> user.getId().equals(userId), id -> userRepository
+                .findByIdWithRolesAndManager(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id)));
+    }
+
+    public User getByUsername(String username, Function<String, User> loader) {
+        return resolve(username, user -> user.getUsername().equals(username), loader);
+    }
+
+    public CurrentUserLookupStats getStats() {
+        long total = lookups.sum();
+        long saved = reused.sum();
+        return new CurrentUserLookupStats(total, databaseLoads.sum(), saved,
+                total == 0 ? 0.0 : (double) saved / total);
+    }
+
+    private <K> User resolve(K key, Predicate<User> matches, Function<K, User> loader) {
+        lookups.increment();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object cached = attributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            // Only reuse an entity still attached to the persistence context in use,
+            // so lazy associations and dirty checking keep working
+            if (cached instanceof User user && matches.test(user) && entityManager.contains(user)) {
+                reused.increment();
+                return user;
+            }
+        }
+
+        User user = loader.apply(key);
+        databaseLoads.increment();
+        if (attributes != null) {
+            attributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +26,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -34,25 +39,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 "/robots933456.txt") || requestURI.startsWith("/v3/api-docs")
                 || requestURI.startsWith("/swagger-ui") || requestURI.startsWith("/api/auth/login")
                 || requestURI.startsWith("/api/auth/register")
+                || requestURI.startsWith("/api/auth/refresh")
                 || requestURI.startsWith("/api/auth/forgot-password")
                 || requestURI.startsWith("/api/auth/reset-password") || requestURI.startsWith("/favicon.ico")
                 || requestURI.equals("/") || requestURI.startsWith("/api/app-logs")
-                || requestURI.startsWith("/graphiql")) {
+                || requestURI.startsWith("/graphiql")
+                || requestURI.startsWith("/api/calendar-feeds/") && requestURI.endsWith(".ics")) {
             filterChain.doFilter(request, response);
             return;
         }
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.getValidatedClaims(jwt) : null;
+
+            if (claims != null) {
+                CustomUserDetails userDetails = resolvePrincipal(claims);
 
-                CustomUserDetails userDetails = (CustomUserDetails) userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                if (userDetails.isEnabled()) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
+                    logger.warn("Rejected JWT for deactivated user " + userDetails.getUsername());
+                }
             } else {
                 logger.warn("Invalid or missing JWT token for Request URI: " + requestURI);
             }
@@ -63,6 +75,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Resolve the principal from the userId claim through the principal cache,
+     * so repeat requests within the cache TTL do not touch the database
+     */
+    private CustomUserDetails resolvePrincipal(Claims claims) {
+        Object userId = claims.get("userId");
+        if (userId == null) {
+            return (CustomUserDetails) userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        return principalCache.get(Long.valueOf(userId.toString()),
+                id -> (CustomUserDetails) userDetailsService.loadUserById(id));
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
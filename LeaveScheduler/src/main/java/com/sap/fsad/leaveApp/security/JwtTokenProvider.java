@@ -2,6 +2,7 @@ package com.sap.fsad.leaveApp.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,12 +11,12 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-import com.sap.fsad.leaveApp.repository.BlacklistTokenRepository;
+import com.sap.fsad.leaveApp.util.TokenHashUtil;
 
-import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
@@ -24,6 +25,9 @@ import java.util.stream.Collectors;
 @Component
 public class JwtTokenProvider {
 
+    // Request attribute holding the token verified for the current request and its claims
+    private static final String VERIFIED_TOKEN_ATTRIBUTE = JwtTokenProvider.class.getName() + ".VERIFIED_TOKEN";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
@@ -31,10 +35,19 @@ public class JwtTokenProvider {
     private int jwtExpirationInMs;
 
     @Autowired
-    private BlacklistTokenRepository blacklistTokenRepository;
+    private TokenRevocationStore tokenRevocationStore;
+
+    private Key signingKey;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Immutable and thread-safe, so one instance serves every request
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -49,18 +62,18 @@ public class JwtTokenProvider {
                         .map(GrantedAuthority::getAuthority)
                         .collect(Collectors.joining(",")))
                 .claim("userId", userPrincipal.getId())
-                .setIssuedAt(new Date())
+                .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    public int getExpirationInMs() {
+        return jwtExpirationInMs;
+    }
+
     public UsernamePasswordAuthenticationToken getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = getClaims(token);
 
         Collection<? extends GrantedAuthority> authorities = Arrays
                 .stream(claims.get("authorities").toString().split(","))
@@ -71,65 +84,69 @@ public class JwtTokenProvider {
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+        return getClaims(token).getSubject();
     }
 
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return Long.parseLong(claims.get("userId").toString());
+        return Long.parseLong(getClaims(token).get("userId").toString());
     }
 
     public Date getExpiryDateFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build() // Replace 'secretKey' with your actual key variable
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getExpiration();
+        return getClaims(token).getExpiration();
     }
 
     public boolean validateToken(String authToken) {
-        try {
+        return getValidatedClaims(authToken) != null;
+    }
 
-            if (blacklistTokenRepository.existsByToken(hashToken(authToken))) {
-                return false;
+    /**
+     * Verify a token and return its claims in a single parse, or null when the
+     * token is invalid, expired or revoked. The result is remembered for the
+     * rest of the current request.
+     */
+    public Claims getValidatedClaims(String authToken) {
+        try {
+            if (tokenRevocationStore.isRevoked(TokenHashUtil.sha256Hex(authToken))) {
+                return null;
             }
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            rememberForRequest(authToken, claims);
+            return claims;
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
 
-    private String hashToken(String token) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(hash);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to hash token", e);
+    /**
+     * Claims of a token, reusing the ones verified earlier in the same request
+     * instead of parsing the token again
+     */
+    public Claims getClaims(String token) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object verified = attributes.getAttribute(VERIFIED_TOKEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (verified instanceof VerifiedToken verifiedToken && verifiedToken.token.equals(token)) {
+                return verifiedToken.claims;
+            }
         }
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
+    private void rememberForRequest(String token, Claims claims) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, new VerifiedToken(token, claims),
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static final class VerifiedToken {
+        private final String token;
+        private final Claims claims;
+
+        private VerifiedToken(String token, Claims claims) {
+            this.token = token;
+            this.claims = claims;
         }
-        return result.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package com.sap.fsad.leaveApp.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process token-bucket rate limiter. Each bucket refills continuously at
+ * its per-minute rate and is updated with compare-and-set, so no request
+ * blocks on a lock. Idle buckets are evicted (a bucket idle for a full minute
+ * is full again, so nothing is lost) and the number of tracked subjects is
+ * capped so scanning traffic cannot grow the map without bound.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimiter implements RateLimiter {
+
+    private static final long REFILL_PERIOD_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Value("${app.rate-limit.max-tracked-subjects:100000}")
+    private int maxTrackedSubjects;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public Decision tryConsume(String routeGroup, String subject, int requestsPerMinute) {
+        String key = routeGroup + ":" + subject;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxTrackedSubjects) {
+                evictIdleBuckets();
+            }
+            // Past the cap, untracked subjects share one bucket per route group
+            if (buckets.size() >= maxTrackedSubjects) {
+                key = routeGroup + ":overflow";
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(requestsPerMinute, System.nanoTime()));
+        }
+        return bucket.tryConsume(requestsPerMinute, System.nanoTime());
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    public int getTrackedSubjectCount() {
+        return buckets.size();
+    }
+
+    private static final class TokenBucket {
+        private final AtomicReference<State> state;
+
+        TokenBucket(int capacity, long now) {
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        Decision tryConsume(int capacity, long now) {
+            while (true) {
+                State current = state.get();
+                // Threads may race with slightly older clock readings; never move time backwards
+                long elapsed = Math.max(0, now - current.updatedAt);
+                double refilled = Math.min(capacity,
+                        current.tokens + (double) elapsed * capacity / REFILL_PERIOD_NANOS);
+
+                if (refilled < 1) {
+                    long waitNanos = (long) ((1 - refilled) * REFILL_PERIOD_NANOS / capacity);
+                    return new Decision(false, 0, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+                }
+
+                State next = new State(refilled - 1, Math.max(now, current.updatedAt));
+                if (state.compareAndSet(current, next)) {
+                    return new Decision(true, (int) next.tokens, 0);
+                }
+            }
+        }
+
+        boolean isIdle(long now) {
+            return now - state.get().updatedAt >= REFILL_PERIOD_NANOS;
+        }
+    }
+
+    private static final class State {
+        private final double tokens;
+        private final long updatedAt;
+
+        State(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
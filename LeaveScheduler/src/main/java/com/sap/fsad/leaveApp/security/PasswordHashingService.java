@@ -0,0 +1,165 @@
+package com.sap.fsad.leaveApp.security;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.sap.fsad.leaveApp.exception.RateLimitExceededException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt work for logins on a small dedicated pool sized to the CPU, so a
+ * login storm cannot occupy every request thread. When the pool and its queue
+ * are full, or a caller waits too long, the login is shed with a 429 instead
+ * of queueing without limit. Bulk hashing for onboarding uses a separate pool
+ * so it never takes capacity from logins.
+ */
+@Component
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.login.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.security.login.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.security.login.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${app.security.bulk-hashing-threads:0}")
+    private int bulkHashingThreads;
+
+    private ThreadPoolExecutor executor;
+
+    private ExecutorService bulkExecutor;
+
+    private int bulkThreads;
+
+    @PostConstruct
+    public void init() {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("PasswordHash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        bulkThreads = bulkHashingThreads > 0 ? bulkHashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        bulkExecutor = Executors.newFixedThreadPool(bulkThreads, new CustomizableThreadFactory("BulkPasswordHash-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        bulkExecutor.shutdownNow();
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * True when a stored BCrypt hash uses a different cost than the configured
+     * one, in either direction, so it can be rewritten on the next login
+     */
+    public boolean needsRehash(String encodedPassword) {
+        // BCrypt hashes look like $2a$10$..., with the cost as two digits
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != bcryptStrength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Hash many passwords in parallel, returning the hashes in input order
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        if (rawPasswords.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // One task per thread, each hashing a contiguous slice
+        int sliceSize = (rawPasswords.size() + bulkThreads - 1) / bulkThreads;
+        List<Callable<List<String>>> tasks = new ArrayList<>();
+        for (int from = 0; from < rawPasswords.size(); from += sliceSize) {
+            List<? extends CharSequence> slice = rawPasswords.subList(from,
+                    Math.min(from + sliceSize, rawPasswords.size()));
+            tasks.add(() -> {
+                List<String> hashes = new ArrayList<>(slice.size());
+                for (CharSequence rawPassword : slice) {
+                    hashes.add(passwordEncoder.encode(rawPassword));
+                }
+                return hashes;
+            });
+        }
+
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        try {
+            for (Future<List<String>> future : bulkExecutor.invokeAll(tasks)) {
+                hashes.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return hashes;
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new RateLimitExceededException("Too many login attempts in progress. Please try again shortly.");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RateLimitExceededException("Login is taking too long. Please try again shortly.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
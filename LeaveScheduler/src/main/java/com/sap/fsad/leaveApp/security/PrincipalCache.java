@@ -0,0 +1,82 @@
+package com.sap.fsad.leaveApp.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sap.fsad.leaveApp.event.UserAccessChangedEvent;
+
+/**
+ * Short-lived cache of authenticated principals keyed by user ID, so a request
+ * carrying a valid token does not need a database lookup to be authenticated.
+ * Entries are dropped when a user's access changes and otherwise expire after
+ * the configured TTL.
+ */
+@Component
+public class PrincipalCache {
+
+    @Value("${app.security.principal-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<Long, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    /**
+     * Return the cached principal for a user, loading it on a miss or after expiry
+     */
+    public CustomUserDetails get(Long userId, Function<Long, CustomUserDetails> loader) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(userId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.principal;
+        }
+
+        CustomUserDetails principal = loader.apply(userId);
+        if (principals.size() >= maxSize) {
+            purgeExpired(now);
+        }
+        // When still full, serve the principal uncached rather than grow without bound
+        if (principals.size() < maxSize) {
+            principals.put(userId, new CachedPrincipal(principal, now + ttlMs));
+        }
+        return principal;
+    }
+
+    public void evict(Long userId) {
+        principals.remove(userId);
+    }
+
+    /**
+     * Drop the cached principal once the change to the user has been committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccessChanged(UserAccessChangedEvent event) {
+        evict(event.getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.principal-cache.ttl-ms:60000}")
+    public void purgeExpired() {
+        purgeExpired(System.currentTimeMillis());
+    }
+
+    private void purgeExpired(long now) {
+        principals.values().removeIf(cached -> cached.expiresAt <= now);
+    }
+
+    private static class CachedPrincipal {
+        private final CustomUserDetails principal;
+        private final long expiresAt;
+
+        CachedPrincipal(CustomUserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
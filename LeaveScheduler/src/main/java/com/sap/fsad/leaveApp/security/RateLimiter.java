@@ -0,0 +1,39 @@
+package com.sap.fsad.leaveApp.security;
+
+/**
+ * Backend that tracks request quotas. The in-process {@link LocalRateLimiter}
+ * is the default; a shared implementation (for example one backed by Redis)
+ * can be supplied as a bean with app.rate-limit.backend set to another value
+ * so that quotas are enforced across nodes.
+ */
+public interface RateLimiter {
+
+    /**
+     * Try to take one request from the quota of a subject within a route group
+     */
+    Decision tryConsume(String routeGroup, String subject, int requestsPerMinute);
+
+    final class Decision {
+        private final boolean allowed;
+        private final int remaining;
+        private final long retryAfterSeconds;
+
+        public Decision(boolean allowed, int remaining, long retryAfterSeconds) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public int getRemaining() {
+            return remaining;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
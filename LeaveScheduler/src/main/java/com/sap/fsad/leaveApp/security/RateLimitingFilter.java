@@ -1,50 +1,113 @@
 package com.sap.fsad.leaveApp.security;
 
-import jakarta.servlet.Filter;
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletRequest;
-import jakarta.servlet.ServletResponse;
-import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import com.sap.fsad.leaveApp.exception.RateLimitExceededException;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+/**
+ * Applies per-route-group request quotas. Authenticated requests are limited
+ * per user and anonymous ones per client IP; the auth endpoints are always
+ * limited per IP so credential stuffing cannot spread over many usernames.
+ * Runs after the JWT filter so the authenticated user is known.
+ */
 @Component
-public class RateLimitingFilter implements Filter {
-    private static final int MAX_REQUESTS_PER_MINUTE = 1000;
-    private static final ConcurrentHashMap<String, RequestCounter> requestCounts = new ConcurrentHashMap<>();
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    // Number of trusted reverse proxies that append to X-Forwarded-For; 0 ignores the header
+    @Value("${app.rate-limit.trusted-proxies:0}")
+    private int trustedProxies;
+
+    @Value("${app.rate-limit.default.requests-per-minute:1000}")
+    private int defaultRequestsPerMinute;
+
+    @Value("${app.rate-limit.auth.requests-per-minute:100}")
+    private int authRequestsPerMinute;
+
+    @Value("${app.rate-limit.reports.requests-per-minute:60}")
+    private int reportsRequestsPerMinute;
 
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
-            throws java.io.IOException, jakarta.servlet.ServletException {
-        HttpServletRequest httpRequest = (HttpServletRequest) request;
-        String clientIp = httpRequest.getRemoteAddr();
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        RequestCounter counter = requestCounts.computeIfAbsent(clientIp, k -> new RequestCounter());
-        if (counter.incrementAndCheckLimit()) {
-            response.getWriter().write("Too many requests. Please try again later.");
+        String requestURI = request.getRequestURI();
+        String routeGroup;
+        int limit;
+        if (requestURI.startsWith("/api/auth/")) {
+            routeGroup = "auth";
+            limit = authRequestsPerMinute;
+        } else if (requestURI.startsWith("/api/reports/")) {
+            routeGroup = "reports";
+            limit = reportsRequestsPerMinute;
+        } else {
+            routeGroup = "default";
+            limit = defaultRequestsPerMinute;
+        }
+
+        String subject = resolveSubject(request, !"auth".equals(routeGroup));
+        RateLimiter.Decision decision = rateLimiter.tryConsume(routeGroup, subject, limit);
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(limit));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+
+        if (!decision.isAllowed()) {
+            logger.warn("Rate limit exceeded for " + subject + " on route group " + routeGroup);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()));
             response.setContentType("text/plain");
             response.setCharacterEncoding("UTF-8");
-            throw new RateLimitExceededException("Too many requests from IP: " + clientIp);
+            response.getWriter().write("Too many requests. Please try again later.");
+            return;
         }
 
-        chain.doFilter(request, response);
+        filterChain.doFilter(request, response);
     }
 
-    private static class RequestCounter {
-        private int count = 0;
-        private long timestamp = System.currentTimeMillis();
-
-        synchronized boolean incrementAndCheckLimit() {
-            long now = System.currentTimeMillis();
-            if (now - timestamp > TimeUnit.MINUTES.toMillis(1)) {
-                count = 0;
-                timestamp = now;
+    private String resolveSubject(HttpServletRequest request, boolean allowUserKey) {
+        if (allowUserKey) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails principal) {
+                return "user:" + principal.getId();
             }
-            count++;
-            return count > MAX_REQUESTS_PER_MINUTE;
         }
+        return "ip:" + resolveClientIp(request);
+    }
+
+    /**
+     * Each trusted proxy appends the address it received the request from, so
+     * the client is the entry that many positions from the end of the header.
+     * Entries before it are client-supplied and cannot be trusted.
+     */
+    private String resolveClientIp(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (trustedProxies > 0 && StringUtils.hasText(forwardedFor)) {
+            String[] hops = forwardedFor.split(",");
+            int index = Math.max(0, hops.length - trustedProxies);
+            return hops[index].trim();
+        }
+        return request.getRemoteAddr();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,149 @@
+package com.sap.fsad.leaveApp.security;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sap.fsad.leaveApp.model.BlacklistedToken;
+import com.sap.fsad.leaveApp.repository.BlacklistTokenRepository;
+import com.sap.fsad.leaveApp.util.BloomFilter;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory view of revoked (logged out) tokens, keyed by the token's SHA-256
+ * hash. A Bloom filter answers the common "not revoked" case without touching
+ * the exact set, and the database remains the source of truth: it is loaded at
+ * startup and, when sync is enabled, polled for tokens revoked on other nodes.
+ */
+@Component
+@Slf4j
+public class TokenRevocationStore {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Autowired
+    private BlacklistTokenRepository blacklistTokenRepository;
+
+    @Value("${app.security.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @Value("${app.security.revocation.sync.enabled:false}")
+    private boolean syncEnabled;
+
+    // Token hash -> expiry in epoch millis
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // Serialises writers so a filter rebuild cannot drop a concurrent revocation
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile BloomFilter bloomFilter;
+
+    private volatile long lastSyncedId;
+
+    @PostConstruct
+    public void load() {
+        writeLock.lock();
+        try {
+            Long maxId = blacklistTokenRepository.findMaxId();
+            List<BlacklistedToken> active = blacklistTokenRepository.findByExpiryDateAfter(new Date());
+            for (BlacklistedToken token : active) {
+                revokedTokens.put(token.getToken(), token.getExpiryDate().getTime());
+            }
+            lastSyncedId = maxId != null ? maxId : 0L;
+            rebuildFilter();
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Loaded {} revoked tokens into memory", revokedTokens.size());
+    }
+
+    public boolean isRevoked(String tokenHash) {
+        long[] halves = halves(tokenHash);
+        if (!bloomFilter.mightContain(halves[0], halves[1])) {
+            return false;
+        }
+        return revokedTokens.containsKey(tokenHash);
+    }
+
+    /**
+     * Record a revocation made on this node; the caller persists it
+     */
+    public void revoke(String tokenHash, Date expiryDate) {
+        writeLock.lock();
+        try {
+            revokedTokens.put(tokenHash, expiryDate.getTime());
+            long[] halves = halves(tokenHash);
+            bloomFilter.put(halves[0], halves[1]);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    /**
+     * Drop tokens that have expired anyway and rebuild the filter, since Bloom
+     * filters cannot forget entries
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.prune-interval-ms:600000}")
+    public void pruneExpired() {
+        writeLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            int before = revokedTokens.size();
+            revokedTokens.values().removeIf(expiry -> expiry <= now);
+            rebuildFilter();
+            log.debug("Pruned {} expired revoked tokens", before - revokedTokens.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Pick up revocations written by other nodes since the last poll
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync.interval-ms:5000}")
+    public void syncFromDatabase() {
+        if (!syncEnabled) {
+            return;
+        }
+
+        List<BlacklistedToken> added = blacklistTokenRepository.findByIdGreaterThanOrderByIdAsc(lastSyncedId);
+        for (BlacklistedToken token : added) {
+            revoke(token.getToken(), token.getExpiryDate());
+            lastSyncedId = token.getId();
+        }
+    }
+
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revokedTokens.size() * 2),
+                FALSE_POSITIVE_RATE);
+        for (String tokenHash : revokedTokens.keySet()) {
+            long[] halves = halves(tokenHash);
+            rebuilt.put(halves[0], halves[1]);
+        }
+        bloomFilter = rebuilt;
+    }
+
+    // The hash is a hex SHA-256 digest, so its leading 128 bits are already uniform
+    private static long[] halves(String tokenHash) {
+        if (tokenHash.length() < 32) {
+            long hash = tokenHash.hashCode();
+            return new long[] { hash, Long.rotateLeft(hash, 32) | 1 };
+        }
+        return new long[] {
+                Long.parseUnsignedLong(tokenHash, 0, 16, 16),
+                Long.parseUnsignedLong(tokenHash, 16, 32, 16) };
+    }
+}
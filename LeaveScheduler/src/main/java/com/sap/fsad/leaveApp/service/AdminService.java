@@ -8,6 +8,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +18,8 @@ import com.sap.fsad.leaveApp.dto.request.UserUpdateRequest;
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
 import com.sap.fsad.leaveApp.dto.response.DashboardStatsResponse;
 import com.sap.fsad.leaveApp.dto.response.UserResponse;
+import com.sap.fsad.leaveApp.event.OrgStructureChangedEvent;
+import com.sap.fsad.leaveApp.event.UserAccessChangedEvent;
 import com.sap.fsad.leaveApp.exception.BadRequestException;
 import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
 import com.sap.fsad.leaveApp.model.AuditLog;
@@ -51,6 +54,12 @@ public class AdminService {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     public DashboardStatsResponse getDashboardStats() {
         User currentUser = userService.getCurrentUser();
 
@@ -180,6 +189,18 @@ public class AdminService {
         user.setUpdatedAt(LocalDateTime.now());
         User updatedUser = userRepository.save(user);
 
+        if (request.getPassword() != null) {
+            // A reset password must also end the sessions of whoever knew the old one
+            refreshTokenService.revokeAllForUser(updatedUser.getId());
+        }
+        if (request.getRoles() != null || request.getIsActive() != null || request.getPassword() != null) {
+            eventPublisher.publishEvent(new UserAccessChangedEvent(updatedUser.getId()));
+        }
+        if (request.getManagerId() != null || request.getDepartment() != null
+                || request.getRoles() != null || request.getIsActive() != null) {
+            eventPublisher.publishEvent(new OrgStructureChangedEvent(updatedUser.getId()));
+        }
+
         logAdminAction("UPDATE_USER_DETAILS",
                 "USER ID: " + updatedUser.getId());
 
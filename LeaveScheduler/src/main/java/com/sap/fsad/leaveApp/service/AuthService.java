@@ -1,7 +1,5 @@
 package com.sap.fsad.leaveApp.service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,7 +7,7 @@ import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,11 +20,14 @@ import com.sap.fsad.leaveApp.dto.request.PasswordChangeRequest;
 import com.sap.fsad.leaveApp.dto.request.RegisterRequest;
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
 import com.sap.fsad.leaveApp.dto.response.JwtResponse;
+import com.sap.fsad.leaveApp.event.OrgStructureChangedEvent;
+import com.sap.fsad.leaveApp.event.UserAccessChangedEvent;
 import com.sap.fsad.leaveApp.exception.BadRequestException;
 import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
 import com.sap.fsad.leaveApp.model.BlacklistedToken;
 import com.sap.fsad.leaveApp.model.LeaveBalance;
 import com.sap.fsad.leaveApp.model.LeavePolicy;
+import com.sap.fsad.leaveApp.model.RefreshToken;
 import com.sap.fsad.leaveApp.model.User;
 import com.sap.fsad.leaveApp.model.enums.UserRole;
 import com.sap.fsad.leaveApp.repository.BlacklistTokenRepository;
@@ -35,6 +36,9 @@ import com.sap.fsad.leaveApp.repository.LeavePolicyRepository;
 import com.sap.fsad.leaveApp.repository.UserRepository;
 import com.sap.fsad.leaveApp.security.CustomUserDetails;
 import com.sap.fsad.leaveApp.security.JwtTokenProvider;
+import com.sap.fsad.leaveApp.security.PasswordHashingService;
+import com.sap.fsad.leaveApp.security.TokenRevocationStore;
+import com.sap.fsad.leaveApp.util.TokenHashUtil;
 
 import jakarta.mail.MessagingException;
 
@@ -47,9 +51,6 @@ public class AuthService {
     @Value("${FRONTEND_BASE_URI}")
     private String frontendBaseUri;
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -71,77 +72,119 @@ public class AuthService {
     @Autowired
     private BlacklistTokenRepository blacklistTokenRepository; // Optional: For token blacklisting
 
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginActivityService loginActivityService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public ApiResponse logout(String token) {
+        return logout(token, null);
+    }
+
+    /**
+     * Revoke the access token and, when given, the refresh token family of
+     * the session
+     */
+    public ApiResponse logout(String token, String refreshToken) {
         // Extract the token without the "Bearer " prefix
         String jwt = token.replace("Bearer ", "");
 
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revokeFamily(refreshToken);
+        }
+
         BlacklistedToken blacklistedToken = new BlacklistedToken();
-        blacklistedToken.setToken(hashToken(jwt));
+        blacklistedToken.setToken(TokenHashUtil.sha256Hex(jwt));
         blacklistedToken.setExpiryDate(tokenProvider.getExpiryDateFromToken(jwt));
         blacklistTokenRepository.save(blacklistedToken);
+        tokenRevocationStore.revoke(blacklistedToken.getToken(), blacklistedToken.getExpiryDate());
 
         return new ApiResponse(true, "User logged out successfully");
     }
 
-    private String hashToken(String token) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(hash);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to hash token", e);
-        }
-    }
-
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
-        }
-        return result.toString();
-    }
-
     /**
      * User login
      */
     public JwtResponse login(LoginRequest loginRequest) {
 
-        User userName = userRepository.findByUsername(loginRequest.getUsername())
+        User user = userRepository.findByUsernameWithRoles(loginRequest.getUsername())
                 .orElseThrow(() -> new BadRequestException("Invalid username or password"));
 
-        if (isAccountLocked(userName)) {
+        if (isAccountLocked(user)) {
             throw new BadRequestException("Account is locked. Try again later.");
         }
 
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getUsername(),
-                            loginRequest.getPassword()));
-            resetFailedAttempts(userName);
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = tokenProvider.generateToken(authentication);
-
-            CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
-
-            // Update last login time
-            User user = userRepository.findById(userDetails.getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userDetails.getId()));
-            user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
-
-            return new JwtResponse(
-                    jwt,
-                    userDetails.getId(),
-                    userDetails.getUsername(),
-                    userDetails.getFullName(),
-                    userDetails.getEmail(),
-                    user.getRoles());
-        } catch (Exception e) {
-            increaseFailedAttempts(userName);
+        // BCrypt runs on the bounded hashing pool; sheds with 429 when saturated
+        if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword()) || !user.isActive()) {
+            increaseFailedAttempts(user);
             throw new BadRequestException("Invalid username or password");
         }
+
+        if (user.getFailedLoginAttempts() > 0 || user.isAccountLocked()) {
+            resetFailedAttempts(user);
+        }
+
+        // Move hashes created with an older work factor to the configured one
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            userRepository.updatePassword(user.getId(), passwordHashingService.encode(loginRequest.getPassword()));
+        }
+
+        CustomUserDetails userDetails = CustomUserDetails.build(user);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        String jwt = tokenProvider.generateToken(authentication);
+
+        // Last login time is written in the next background batch
+        loginActivityService.recordLogin(user.getId());
+
+        return buildJwtResponse(jwt, refreshTokenService.issue(user), userDetails, user);
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token
+     * in the same family
+     */
+    @Transactional(noRollbackFor = BadRequestException.class)
+    public JwtResponse refresh(String refreshToken) {
+        RefreshToken current = refreshTokenService.consume(refreshToken);
+        User user = current.getUser();
+
+        if (!user.isActive()) {
+            refreshTokenService.revokeAllForUser(user.getId());
+            throw new BadRequestException("Invalid refresh token");
+        }
+
+        // Authorities come from the current roles, so role changes apply on the next refresh
+        CustomUserDetails userDetails = CustomUserDetails.build(user);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        String jwt = tokenProvider.generateToken(authentication);
+
+        return buildJwtResponse(jwt, refreshTokenService.issue(user, current.getFamilyId()), userDetails, user);
+    }
+
+    private JwtResponse buildJwtResponse(String jwt, String refreshToken, CustomUserDetails userDetails, User user) {
+        JwtResponse response = new JwtResponse(
+                jwt,
+                userDetails.getId(),
+                userDetails.getUsername(),
+                userDetails.getFullName(),
+                userDetails.getEmail(),
+                user.getRoles());
+        response.setRefreshToken(refreshToken);
+        response.setExpiresIn(tokenProvider.getExpirationInMs() / 1000L);
+        return response;
     }
 
     /**
@@ -187,6 +230,7 @@ public class AuthService {
         user.setUpdatedAt(LocalDateTime.now());
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new OrgStructureChangedEvent(savedUser.getId()));
 
         // Initialize leave balances based on leave policy
         initializeLeaveBalances(savedUser);
@@ -194,63 +238,6 @@ public class AuthService {
         return savedUser;
     }
 
-    @Transactional
-    public List<User> register(List<RegisterRequest> registerRequests) {
-        List<User> registeredUsers = new ArrayList<>();
-
-        for (RegisterRequest registerRequest : registerRequests) {
-            // Check if username already exists
-            if (userRepository.existsByUsername(registerRequest.getUsername())) {
-                throw new BadRequestException("Username is already taken: " + registerRequest.getUsername());
-            }
-
-            // Check if email already exists
-            if (userRepository.existsByEmail(registerRequest.getEmail())) {
-                throw new BadRequestException("Email is already in use: " + registerRequest.getEmail());
-            }
-
-            // Check if manager exists
-            User manager = null;
-            if (registerRequest.getManagerId() != null) {
-                manager = userRepository.findById(registerRequest.getManagerId())
-                        .orElseThrow(() -> new ResourceNotFoundException("User", "id", registerRequest.getManagerId()));
-            }
-
-            if (!isValidPassword(registerRequest.getPassword())) {
-                throw new BadRequestException("Password does not meet the required strength");
-            }
-
-            // Create new user
-            User user = new User();
-            user.setUsername(registerRequest.getUsername());
-            user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
-            user.setFullName(registerRequest.getFullName());
-            user.setEmail(registerRequest.getEmail());
-            if (registerRequest.getRoles() != null && !registerRequest.getRoles().isEmpty()) {
-                user.setRoles(registerRequest.getRoles());
-            } else {
-                user.getRoles().add(UserRole.EMPLOYEE);
-            }
-            user.setDepartment(registerRequest.getDepartment());
-            user.setManager(manager);
-            user.setJoiningDate(registerRequest.getJoiningDate());
-            user.setPhone(registerRequest.getPhone());
-            user.setEmergencyContact(registerRequest.getEmergencyContact());
-            user.setActive(true);
-            user.setCreatedAt(LocalDateTime.now());
-            user.setUpdatedAt(LocalDateTime.now());
-
-            User savedUser = userRepository.save(user);
-
-            // Initialize leave balances based on leave policy
-            initializeLeaveBalances(savedUser);
-
-            registeredUsers.add(savedUser);
-        }
-
-        return registeredUsers;
-    }
-
     /**
      * Initialize leave balances for a new user based on leave policies
      */
@@ -299,6 +286,8 @@ public class AuthService {
         currentUser.setPassword(passwordEncoder.encode(passwordChangeRequest.getNewPassword()));
         currentUser.setUpdatedAt(LocalDateTime.now());
         userRepository.save(currentUser);
+        refreshTokenService.revokeAllForUser(currentUser.getId());
+        eventPublisher.publishEvent(new UserAccessChangedEvent(currentUser.getId()));
 
         return new ApiResponse(true, "Password changed successfully");
     }
@@ -331,20 +320,16 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setResetToken(null); // Clear the reset token
         userRepository.save(user);
+        refreshTokenService.revokeAllForUser(user.getId());
+        eventPublisher.publishEvent(new UserAccessChangedEvent(user.getId()));
     }
 
-    private boolean isValidPassword(String password) {
+    static boolean isValidPassword(String password) {
         return password.matches("^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=]).{8,}$");
     }
 
     public void increaseFailedAttempts(User user) {
-        int newFailAttempts = user.getFailedLoginAttempts() + 1;
-        user.setFailedLoginAttempts(newFailAttempts);
-        if (newFailAttempts >= MAX_FAILED_ATTEMPTS) {
-            user.setAccountLocked(true);
-            user.setLockTime(System.currentTimeMillis());
-        }
-        userRepository.save(user);
+        userRepository.recordFailedLogin(user.getId(), MAX_FAILED_ATTEMPTS, System.currentTimeMillis());
     }
 
     public void resetFailedAttempts(User user) {
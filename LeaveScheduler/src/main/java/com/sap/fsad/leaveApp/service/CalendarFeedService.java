@@ -0,0 +1,234 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sap.fsad.leaveApp.dto.response.CalendarFeedRow;
+import com.sap.fsad.leaveApp.dto.response.CalendarFeedTokenResponse;
+import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
+import com.sap.fsad.leaveApp.model.CalendarFeedToken;
+import com.sap.fsad.leaveApp.model.Holiday;
+import com.sap.fsad.leaveApp.model.User;
+import com.sap.fsad.leaveApp.model.enums.CalendarFeedScope;
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.repository.CalendarFeedTokenRepository;
+import com.sap.fsad.leaveApp.repository.LeaveApplicationRepository;
+import com.sap.fsad.leaveApp.util.ICalendarWriter;
+import com.sap.fsad.leaveApp.util.TokenHashUtil;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * iCalendar feeds of a user's own leave or their department's leave, plus
+ * holidays, for calendar clients that poll a secret URL. Each feed has an
+ * ETag and Last-Modified worked out from one aggregate query, so unchanged
+ * feeds are answered with 304 without reading any leave. Responses carry a
+ * sync token; presenting it returns only the leaves changed since, with
+ * withdrawn and rejected ones as cancelled events.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Set<LeaveStatus> FEED_STATUSES = EnumSet.of(LeaveStatus.PENDING, LeaveStatus.APPROVED);
+    private static final LocalDateTime NO_CHANGES = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String UID_DOMAIN = "@leave-scheduler";
+
+    @Autowired
+    private CalendarFeedTokenRepository calendarFeedTokenRepository;
+
+    @Autowired
+    private LeaveApplicationRepository leaveApplicationRepository;
+
+    @Autowired
+    private HolidayService holidayService;
+
+    @Value("${app.calendar-feed.past-days:90}")
+    private int pastDays;
+
+    @Value("${app.calendar-feed.sync-overlap-ms:300000}")
+    private long syncOverlapMs;
+
+    /**
+     * Issue a new feed token for the user, replacing any earlier one, and
+     * return its raw value; only the hash is stored
+     */
+    @Transactional
+    public CalendarFeedTokenResponse issueToken(User user) {
+        calendarFeedTokenRepository.deleteByUserId(user.getId());
+
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        CalendarFeedToken feedToken = new CalendarFeedToken();
+        feedToken.setUser(user);
+        feedToken.setTokenHash(TokenHashUtil.sha256Hex(rawToken));
+        feedToken.setCreatedAt(LocalDateTime.now());
+        calendarFeedTokenRepository.save(feedToken);
+
+        String base = "/api/calendar-feeds/" + rawToken;
+        return new CalendarFeedTokenResponse(rawToken, base + "/user.ics", base + "/team.ics");
+    }
+
+    @Transactional
+    public void revokeToken(User user) {
+        calendarFeedTokenRepository.deleteByUserId(user.getId());
+    }
+
+    /**
+     * The active user a feed token belongs to
+     */
+    @Transactional(readOnly = true)
+    public User resolveToken(String rawToken) {
+        return calendarFeedTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex(rawToken))
+                .map(CalendarFeedToken::getUser)
+                .filter(User::isActive)
+                .orElseThrow(() -> new ResourceNotFoundException("Calendar feed not found"));
+    }
+
+    /**
+     * Work out what a feed request covers and its validators without reading
+     * any leave. An unknown or stale sync token gives the full feed.
+     */
+    @Transactional(readOnly = true)
+    public CalendarFeed prepare(User user, CalendarFeedScope scope, String syncToken) {
+        boolean team = scope == CalendarFeedScope.TEAM && user.getDepartment() != null;
+        Long userId = team ? null : user.getId();
+        String department = team ? user.getDepartment() : null;
+        String feedKey = team ? "team:" + department : "user:" + user.getId();
+        LocalDate fromDate = LocalDate.now().minusDays(pastDays);
+
+        Object[] version = leaveApplicationRepository.findFeedVersion(fromDate, userId, department).get(0);
+        LocalDateTime latestLeaveUpdate = version[0] != null ? (LocalDateTime) version[0] : NO_CHANGES;
+        long leaveCount = ((Number) version[1]).longValue();
+        String holidayVersion = holidayService.getVersion();
+
+        LocalDateTime since = null;
+        boolean includeHolidays = true;
+        String[] previous = decodeSyncToken(syncToken);
+        if (previous != null && previous[1].equals(feedKey)) {
+            // Re-send recent changes, since one committed late may carry an earlier timestamp
+            since = LocalDateTime.parse(previous[0]).minusNanos(syncOverlapMs * 1_000_000);
+            includeHolidays = !previous[2].equals(holidayVersion);
+        }
+
+        String eTag = "\"" + TokenHashUtil.sha256Hex(String.join("|", feedKey, fromDate.toString(),
+                latestLeaveUpdate.toString(), String.valueOf(leaveCount), holidayVersion,
+                since != null ? syncToken : "")) + "\"";
+        LocalDateTime latest = latestLeaveUpdate;
+        LocalDateTime latestHolidayUpdate = holidayService.getLatestUpdate();
+        if (latestHolidayUpdate != null && latestHolidayUpdate.isAfter(latest)) {
+            latest = latestHolidayUpdate;
+        }
+        Instant lastModified = latest.equals(NO_CHANGES) ? null : latest.atZone(ZoneId.systemDefault()).toInstant();
+
+        String name = team ? "Team leave - " + department : "Leave - " + user.getFullName();
+        return new CalendarFeed(name, team, userId, department, fromDate, since, includeHolidays, eTag, lastModified,
+                encodeSyncToken(latestLeaveUpdate, feedKey, holidayVersion));
+    }
+
+    /**
+     * Stream a prepared feed. Leaves are read in batches as they are written.
+     */
+    @Transactional(readOnly = true)
+    public void write(CalendarFeed feed, Writer out) throws IOException {
+        ICalendarWriter calendar = new ICalendarWriter(out);
+        calendar.begin(feed.name);
+
+        if (feed.includeHolidays) {
+            int lastYear = LocalDate.now().getYear() + 1;
+            for (int year = feed.fromDate.getYear(); year <= lastYear; year++) {
+                for (Holiday holiday : holidayService.getHolidaysByYear(year)) {
+                    if (!holiday.getDate().isBefore(feed.fromDate)) {
+                        LocalDateTime stamp = holiday.getUpdatedAt() != null ? holiday.getUpdatedAt()
+                                : holiday.getCreatedAt();
+                        calendar.event("holiday-" + holiday.getId() + "-" + year + UID_DOMAIN, toInstant(stamp),
+                                holiday.getDate(), holiday.getDate(), holiday.getName(), "CONFIRMED");
+                    }
+                }
+            }
+        }
+
+        try (Stream<CalendarFeedRow> rows = leaveApplicationRepository.streamCalendarFeed(feed.fromDate,
+                feed.userId, feed.department, FEED_STATUSES, feed.since)) {
+            for (CalendarFeedRow row : (Iterable<CalendarFeedRow>) rows::iterator) {
+                String summary = feed.team ? row.getEmployeeName() + " - " + row.getLeaveType() + " leave"
+                        : row.getLeaveType() + " leave";
+                calendar.event("leave-" + row.getId() + UID_DOMAIN, toInstant(row.getUpdatedAt()),
+                        row.getStartDate(), row.getEndDate(),
+                        row.getStatus() == LeaveStatus.PENDING ? summary + " (pending)" : summary,
+                        eventStatus(row.getStatus()));
+            }
+        }
+        calendar.end();
+    }
+
+    private static String eventStatus(LeaveStatus status) {
+        if (status == LeaveStatus.APPROVED) {
+            return "CONFIRMED";
+        }
+        return status == LeaveStatus.PENDING ? "TENTATIVE" : "CANCELLED";
+    }
+
+    private static Instant toInstant(LocalDateTime timestamp) {
+        return (timestamp != null ? timestamp : NO_CHANGES).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static String encodeSyncToken(LocalDateTime latestLeaveUpdate, String feedKey, String holidayVersion) {
+        String raw = String.join("\n", latestLeaveUpdate.toString(), feedKey, holidayVersion);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Leave timestamp, feed key and holiday version, or null if the token cannot be read
+    private static String[] decodeSyncToken(String syncToken) {
+        if (syncToken == null || syncToken.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(syncToken), StandardCharsets.UTF_8)
+                    .split("\n", -1);
+            if (parts.length != 3) {
+                return null;
+            }
+            LocalDateTime.parse(parts[0]);
+            return parts;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * What one feed response covers, with its validators and next sync token
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class CalendarFeed {
+        private final String name;
+        private final boolean team;
+        private final Long userId;
+        private final String department;
+        private final LocalDate fromDate;
+        private final LocalDateTime since;
+        private final boolean includeHolidays;
+        private final String eTag;
+        private final Instant lastModified;
+        private final String syncToken;
+    }
+}
@@ -0,0 +1,154 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sap.fsad.leaveApp.dto.response.AbsenceHeatmapResponse;
+import com.sap.fsad.leaveApp.dto.response.AbsenceHeatmapResponse.DayCoverage;
+import com.sap.fsad.leaveApp.exception.BadRequestException;
+import com.sap.fsad.leaveApp.model.Holiday;
+import com.sap.fsad.leaveApp.model.User;
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.UserRole;
+import com.sap.fsad.leaveApp.repository.LeaveApplicationRepository;
+import com.sap.fsad.leaveApp.util.DateUtil;
+
+/**
+ * Per-day absence counts of a department from its approved and pending
+ * leave. Each leave adds +1 at its first day and -1 after its last day of a
+ * difference array over the range, and a prefix sum turns that into daily
+ * counts, so the cost is one pass over the leaves plus one over the days,
+ * however long each leave is.
+ */
+@Service
+public class DepartmentCoverageService {
+
+    private static final Set<LeaveStatus> ABSENCE_STATUSES = EnumSet.of(LeaveStatus.APPROVED, LeaveStatus.PENDING);
+
+    @Autowired
+    private LeaveApplicationRepository leaveApplicationRepository;
+
+    @Autowired
+    private HolidayService holidayService;
+
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${app.coverage.minimum-ratio:0.7}")
+    private double minimumRatio;
+
+    @Value("${app.coverage.max-range-days:366}")
+    private int maxRangeDays;
+
+    /**
+     * Heatmap of a department, for admins and the managers of that department
+     */
+    @Transactional(readOnly = true)
+    public AbsenceHeatmapResponse getAbsenceHeatmap(String department, LocalDate startDate, LocalDate endDate) {
+        User currentUser = userService.getCurrentUser();
+        if (!orgHierarchyIndex.hasAnyRole(currentUser.getId(), UserRole.ADMIN)
+                && !(orgHierarchyIndex.hasAnyRole(currentUser.getId(), UserRole.MANAGER)
+                        && department.equals(currentUser.getDepartment()))) {
+            throw new AccessDeniedException("You can only view the coverage of your own department");
+        }
+
+        LocalDate from = startDate != null ? startDate : LocalDate.now();
+        LocalDate to = endDate != null ? endDate : from.plusMonths(3).minusDays(1);
+        if (to.isBefore(from)) {
+            throw new BadRequestException("End date cannot be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new BadRequestException("Date range cannot be longer than " + maxRangeDays + " days");
+        }
+
+        List<DayCoverage> days = computeCoverage(department, from, to);
+        int belowMinimum = (int) days.stream().filter(DayCoverage::isBelowMinimum).count();
+        return new AbsenceHeatmapResponse(department, from, to, countActiveMembers(department), minimumRatio,
+                belowMinimum, days);
+    }
+
+    /**
+     * A warning naming the working days in the range on which the department
+     * is below minimum coverage, or null if there are none
+     */
+    @Transactional(readOnly = true)
+    public String getCoverageWarning(String department, LocalDate startDate, LocalDate endDate) {
+        if (department == null) {
+            return null;
+        }
+        List<LocalDate> understaffed = computeCoverage(department, startDate, endDate).stream()
+                .filter(DayCoverage::isBelowMinimum)
+                .map(DayCoverage::getDate)
+                .collect(Collectors.toList());
+        if (understaffed.isEmpty()) {
+            return null;
+        }
+        return String.format("Staffing in %s falls below %d%% on %s", department, Math.round(minimumRatio * 100),
+                understaffed.stream().map(LocalDate::toString).collect(Collectors.joining(", ")));
+    }
+
+    private List<DayCoverage> computeCoverage(String department, LocalDate from, LocalDate to) {
+        int length = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        int[] approved = new int[length + 1];
+        int[] pending = new int[length + 1];
+
+        for (Object[] span : leaveApplicationRepository.findAbsenceSpans(department, from, to, ABSENCE_STATUSES)) {
+            LocalDate start = (LocalDate) span[0];
+            LocalDate end = (LocalDate) span[1];
+            int first = start.isBefore(from) ? 0 : (int) ChronoUnit.DAYS.between(from, start);
+            int last = end.isAfter(to) ? length - 1 : (int) ChronoUnit.DAYS.between(from, end);
+            int[] counts = span[2] == LeaveStatus.APPROVED ? approved : pending;
+            counts[first]++;
+            counts[last + 1]--;
+        }
+
+        // The yearly calendars include recurring holidays stored under an earlier year
+        Set<LocalDate> holidays = new HashSet<>();
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            for (Holiday holiday : holidayService.getHolidaysByYear(year)) {
+                holidays.add(holiday.getDate());
+            }
+        }
+
+        int headcount = countActiveMembers(department);
+        List<DayCoverage> days = new ArrayList<>(length);
+        int approvedCount = 0;
+        int pendingCount = 0;
+        for (int i = 0; i < length; i++) {
+            approvedCount += approved[i];
+            pendingCount += pending[i];
+            LocalDate date = from.plusDays(i);
+            boolean workingDay = !DateUtil.isWeekend(date) && !holidays.contains(date);
+            int available = Math.max(0, headcount - approvedCount - pendingCount);
+            double coverage = headcount > 0 ? (double) available / headcount : 1.0;
+            days.add(new DayCoverage(date, workingDay, approvedCount, pendingCount, available,
+                    Math.round(coverage * 1000) / 1000.0, workingDay && headcount > 0 && coverage < minimumRatio));
+        }
+        return days;
+    }
+
+    private int countActiveMembers(String department) {
+        int count = 0;
+        for (Long memberId : orgHierarchyIndex.getDepartmentRoster(department)) {
+            if (orgHierarchyIndex.isActive(memberId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -3,15 +3,25 @@ package com.sap.fsad.leaveApp.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
+import com.sap.fsad.leaveApp.event.HolidaysChangedEvent;
 import com.sap.fsad.leaveApp.exception.BadRequestException;
 import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
 import com.sap.fsad.leaveApp.model.AuditLog;
@@ -32,6 +42,18 @@ public class HolidayService {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Holidays of a year including recurring ones, built on first use
+    private final Map<Integer, List<Holiday>> holidaysByYear = new ConcurrentHashMap<>();
+
+    // Latest change and number of holidays, read before anything is cached
+    private volatile HolidayVersion version;
+
+    // Bumped on every change, so nothing read before the change is cached after it
+    private final AtomicLong generation = new AtomicLong();
+
     private void logAdminAction(String action, String details) {
         User currentUser = userService.getCurrentUser();
         AuditLog log = new AuditLog();
@@ -55,6 +77,7 @@ public class HolidayService {
         holiday.setCreatedAt(LocalDateTime.now());
         holiday.setUpdatedAt(LocalDateTime.now());
         Holiday savedHoliday = holidayRepository.save(holiday);
+        eventPublisher.publishEvent(new HolidaysChangedEvent());
 
         logAdminAction("CREATE_HOLIDAY", "Holiday created: " + savedHoliday.getName());
         return savedHoliday;
@@ -92,53 +115,127 @@ public class HolidayService {
     }
 
     /**
-     * Get holidays by year
+     * Get holidays by year, with recurring holidays moved into that year
      */
     public List<Holiday> getHolidaysByYear(Integer year) {
-        List<Holiday> holidays = holidayRepository.findByYear(year);
-        // Add recurring holidays from other years
-        List<Holiday> recurring = holidayRepository.findByIsRecurringTrue();
-        for (Holiday h : recurring) {
-            if (h.getDate() != null && h.getDate().getYear() != year) {
-                // Create a copy with the requested year
-                Holiday recurringCopy = new Holiday(
-                        h.getId(),
-                        h.getName(),
-                        h.getDate().withYear(year),
-                        h.getType(),
-                        h.getDescription(),
-                        h.getIsRecurring(),
-                        h.getCreatedAt(),
-                        h.getUpdatedAt());
-                holidays.add(recurringCopy);
+        return new ArrayList<>(cachedHolidays(year));
+    }
+
+    /**
+     * Get holidays by month and year
+     */
+    public List<Holiday> getHolidaysByMonthAndYear(Integer month, Integer year) {
+        return cachedHolidays(year).stream()
+                .filter(holiday -> holiday.getDate().getMonthValue() == month)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Drop cached holiday calendars once a change to holidays has been committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHolidaysChanged(HolidaysChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Drop cached holiday calendars if holidays were changed on another
+     * instance since they were cached
+     */
+    @Scheduled(fixedDelayString = "${app.holidays.version-check-ms:60000}",
+            initialDelayString = "${app.holidays.version-check-ms:60000}")
+    public void checkVersion() {
+        HolidayVersion cached = version;
+        if (cached != null && !cached.sameAs(readVersion())) {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            holidaysByYear.clear();
+            version = null;
+        }
+    }
+
+    private List<Holiday> cachedHolidays(Integer year) {
+        List<Holiday> holidays = holidaysByYear.get(year);
+        if (holidays != null) {
+            return holidays;
+        }
+        // The version is read first, so checkVersion sees any change made after the holidays are read
+        long readAt = generation.get();
+        loadVersion();
+        holidays = expandHolidays(year);
+        synchronized (generation) {
+            if (generation.get() == readAt) {
+                holidaysByYear.putIfAbsent(year, holidays);
             }
         }
         return holidays;
     }
 
     /**
-     * Get holidays by month and year
+     * Opaque value that changes whenever a holiday is created, changed or deleted
      */
-    public List<Holiday> getHolidaysByMonthAndYear(Integer month, Integer year) {
-        List<Holiday> holidays = holidayRepository.findByMonthAndYear(month, year);
+    public String getVersion() {
+        HolidayVersion current = loadVersion();
+        return current.count + ":" + current.latestUpdate;
+    }
+
+    /**
+     * When a holiday was last created or changed, or null if there are none
+     */
+    public LocalDateTime getLatestUpdate() {
+        return loadVersion().latestUpdate;
+    }
+
+    private HolidayVersion loadVersion() {
+        HolidayVersion current = version;
+        if (current == null) {
+            long readAt = generation.get();
+            current = readVersion();
+            synchronized (generation) {
+                if (generation.get() == readAt) {
+                    version = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private HolidayVersion readVersion() {
+        Object[] row = holidayRepository.findVersion().get(0);
+        return new HolidayVersion((LocalDateTime) row[0], ((Number) row[1]).longValue());
+    }
+
+    private List<Holiday> expandHolidays(Integer year) {
+        List<Holiday> holidays = new ArrayList<>();
+        for (Holiday h : holidayRepository.findByYear(year)) {
+            holidays.add(copyInYear(h, year));
+        }
         // Add recurring holidays from other years
-        List<Holiday> recurring = holidayRepository.findByIsRecurringTrue();
-        for (Holiday h : recurring) {
-            if (h.getDate() != null && h.getDate().getMonthValue() == month && h.getDate().getYear() != year) {
-                // Create a copy with the requested year
-                Holiday recurringCopy = new Holiday(
-                        h.getId(),
-                        h.getName(),
-                        h.getDate().withYear(year),
-                        h.getType(),
-                        h.getDescription(),
-                        h.getIsRecurring(),
-                        h.getCreatedAt(),
-                        h.getUpdatedAt());
-                holidays.add(recurringCopy);
+        for (Holiday h : holidayRepository.findByIsRecurringTrue()) {
+            if (h.getDate() != null && h.getDate().getYear() != year) {
+                holidays.add(copyInYear(h, year));
             }
         }
-        return holidays;
+        holidays.sort(Comparator.comparing(Holiday::getDate));
+        return List.copyOf(holidays);
+    }
+
+    // Cached holidays are detached copies, so no caller shares a managed entity
+    private static Holiday copyInYear(Holiday h, int year) {
+        return new Holiday(
+                h.getId(),
+                h.getName(),
+                h.getDate().withYear(year),
+                h.getType(),
+                h.getDescription(),
+                h.getIsRecurring(),
+                h.getCreatedAt(),
+                h.getUpdatedAt());
     }
 
     /**
@@ -167,6 +264,7 @@ public class HolidayService {
         holiday.setUpdatedAt(LocalDateTime.now());
 
         Holiday updatedHoliday = holidayRepository.save(holiday);
+        eventPublisher.publishEvent(new HolidaysChangedEvent());
 
         logAdminAction("UPDATE_HOLIDAY", "Holiday updated: " + updatedHoliday.getName());
         return updatedHoliday;
@@ -180,6 +278,7 @@ public class HolidayService {
         Holiday holiday = getHolidayById(id);
         logAdminAction("DELETE_HOLIDAY", "Holiday deleted: " + holiday.getName());
         holidayRepository.delete(holiday);
+        eventPublisher.publishEvent(new HolidaysChangedEvent());
         return new ApiResponse(true, "Holiday deleted successfully");
     }
 
@@ -189,4 +288,18 @@ public class HolidayService {
     public boolean isHoliday(LocalDate date) {
         return holidayRepository.existsByDate(date);
     }
-}
\ No newline at end of file
+
+    private static final class HolidayVersion {
+        private final LocalDateTime latestUpdate;
+        private final long count;
+
+        private HolidayVersion(LocalDateTime latestUpdate, long count) {
+            this.latestUpdate = latestUpdate;
+            this.count = count;
+        }
+
+        private boolean sameAs(HolidayVersion other) {
+            return count == other.count && Objects.equals(latestUpdate, other.latestUpdate);
+        }
+    }
+}
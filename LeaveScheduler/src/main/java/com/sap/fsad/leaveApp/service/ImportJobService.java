@@ -0,0 +1,644 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.sap.fsad.leaveApp.dto.request.RegisterRequest;
+import com.sap.fsad.leaveApp.dto.response.BulkRegistrationResponse;
+import com.sap.fsad.leaveApp.dto.response.BulkRegistrationResponse.RowResult;
+import com.sap.fsad.leaveApp.event.HolidaysChangedEvent;
+import com.sap.fsad.leaveApp.exception.BadRequestException;
+import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
+import com.sap.fsad.leaveApp.model.AuditLog;
+import com.sap.fsad.leaveApp.model.Holiday;
+import com.sap.fsad.leaveApp.model.ImportJob;
+import com.sap.fsad.leaveApp.model.ImportRowError;
+import com.sap.fsad.leaveApp.model.LeaveBalance;
+import com.sap.fsad.leaveApp.model.User;
+import com.sap.fsad.leaveApp.model.enums.ImportJobStatus;
+import com.sap.fsad.leaveApp.model.enums.ImportType;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+import com.sap.fsad.leaveApp.model.enums.UserRole;
+import com.sap.fsad.leaveApp.repository.AuditLogRepository;
+import com.sap.fsad.leaveApp.repository.HolidayRepository;
+import com.sap.fsad.leaveApp.repository.ImportJobRepository;
+import com.sap.fsad.leaveApp.repository.ImportRowErrorRepository;
+import com.sap.fsad.leaveApp.repository.LeaveBalanceRepository;
+import com.sap.fsad.leaveApp.repository.UserRepository;
+import com.sap.fsad.leaveApp.util.SpreadsheetRowReader;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports users, holidays and leave balance adjustments from CSV or XLSX files
+ * in the background. The upload is stored on disk and read row by row, rows
+ * are applied in chunks, and each chunk commits together with the job's
+ * progress and checkpoint. A job interrupted by a failure or a restart resumes
+ * after the last committed row. Rejected rows are recorded with their row
+ * number and reason instead of failing the whole file.
+ */
+@Service
+@Slf4j
+public class ImportJobService {
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("M/d/yyyy"),
+            DateTimeFormatter.ofPattern("M/d/yy"));
+
+    private static final Map<ImportType, List<String>> REQUIRED_COLUMNS = Map.of(
+            ImportType.USERS, List.of("username", "password", "fullname", "email"),
+            ImportType.HOLIDAYS, List.of("name", "date"),
+            ImportType.LEAVE_BALANCE_ADJUSTMENTS, List.of("username", "leavetype", "amount"));
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private ImportRowErrorRepository importRowErrorRepository;
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private UserOnboardingService userOnboardingService;
+
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.imports.directory:${java.io.tmpdir}/leave-scheduler-imports}")
+    private String directory;
+
+    @Value("${app.imports.concurrency:1}")
+    private int concurrency;
+
+    @Value("${app.imports.chunk-size:500}")
+    private int chunkSize;
+
+    private ThreadPoolExecutor executor;
+
+    // Jobs queued or running on this node, so a job is never picked up twice
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, concurrency);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("Import-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running jobs stay RUNNING and are resumed from their checkpoint on the next start
+        executor.shutdownNow();
+    }
+
+    /**
+     * Store an uploaded file and queue it for import
+     */
+    public ImportJob submit(ImportType type, MultipartFile file, Long userId) {
+        if (type == null) {
+            throw new BadRequestException("Import type is required");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("File is empty");
+        }
+        String fileName = StringUtils.cleanPath(file.getOriginalFilename() != null ? file.getOriginalFilename() : "");
+        String extension = StringUtils.getFilenameExtension(fileName);
+        if (extension == null || !(extension.equalsIgnoreCase("csv") || extension.equalsIgnoreCase("xlsx"))) {
+            throw new BadRequestException("Only .csv and .xlsx files can be imported");
+        }
+
+        String id = UUID.randomUUID().toString();
+        Path target = Paths.get(directory).toAbsolutePath().resolve(id + "." + extension.toLowerCase(Locale.ROOT));
+        try {
+            Files.createDirectories(target.getParent());
+            file.transferTo(target);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not store the uploaded file", e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ImportJob job = new ImportJob();
+        job.setId(id);
+        job.setType(type);
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setFileName(fileName);
+        job.setFilePath(target.toString());
+        job.setCreatedBy(userId);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        job = importJobRepository.save(job);
+
+        enqueue(id);
+        return job;
+    }
+
+    public ImportJob getJob(String id) {
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job", "id", id));
+    }
+
+    public List<ImportJob> getRecentJobs() {
+        return importJobRepository.findTop50ByOrderByCreatedAtDesc();
+    }
+
+    public List<ImportRowError> getErrors(String id, int page, int size) {
+        getJob(id);
+        int pageSize = Math.min(Math.max(size, 1), 1000);
+        return importRowErrorRepository.findByJobIdOrderByRowNumberAsc(id, PageRequest.of(Math.max(page, 0), pageSize));
+    }
+
+    /**
+     * Restart a failed job from its last checkpoint
+     */
+    public ImportJob resume(String id) {
+        ImportJob job = getJob(id);
+        if (job.getStatus() == ImportJobStatus.COMPLETED) {
+            throw new BadRequestException("Import job has already completed");
+        }
+        if (activeJobs.contains(id)) {
+            throw new BadRequestException("Import job is already queued or running");
+        }
+        if (job.getFilePath() == null || !new File(job.getFilePath()).isFile()) {
+            throw new BadRequestException("The uploaded file for this job is no longer available");
+        }
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setMessage(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        job = importJobRepository.save(job);
+        enqueue(id);
+        return job;
+    }
+
+    /**
+     * Pick up jobs that were queued or running when the application stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        List<ImportJob> pending = importJobRepository.findByStatusInOrderByCreatedAtAsc(
+                EnumSet.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING));
+        for (ImportJob job : pending) {
+            log.info("Resuming import job {} after row {}", job.getId(), job.getCheckpointRow());
+            enqueue(job.getId());
+        }
+    }
+
+    private void enqueue(String id) {
+        if (activeJobs.add(id)) {
+            executor.execute(() -> {
+                try {
+                    run(id);
+                } finally {
+                    activeJobs.remove(id);
+                }
+            });
+        }
+    }
+
+    private void run(String id) {
+        ImportJob job = importJobRepository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(ImportJobStatus.RUNNING);
+        job.setUpdatedAt(LocalDateTime.now());
+        job = importJobRepository.save(job);
+
+        ChunkedImport chunks = new ChunkedImport(job);
+        try {
+            File file = new File(job.getFilePath());
+            if (!file.isFile()) {
+                throw new IllegalStateException("The uploaded file is no longer available");
+            }
+            SpreadsheetRowReader.read(file, SpreadsheetRowReader.isXlsx(job.getFileName()), chunks::accept);
+            chunks.flush();
+            job = chunks.job;
+
+            job.setStatus(ImportJobStatus.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setUpdatedAt(job.getCompletedAt());
+            job.setMessage(job.getSucceededRows() + " rows imported, " + job.getFailedRows() + " rejected");
+            importJobRepository.save(job);
+            logImport(job);
+            Files.deleteIfExists(file.toPath());
+        } catch (Exception e) {
+            log.warn("Import job {} failed: {}", id, e.getMessage());
+            // Counters of the failed chunk were never committed, so continue from the stored checkpoint
+            importJobRepository.findById(id).ifPresent(failed -> {
+                failed.setStatus(ImportJobStatus.FAILED);
+                failed.setMessage(truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+                failed.setUpdatedAt(LocalDateTime.now());
+                importJobRepository.save(failed);
+            });
+        } finally {
+            // Once per job rather than per chunk, including users created before a failure
+            if (chunks.usersCreated) {
+                orgHierarchyIndex.reload();
+            }
+        }
+    }
+
+    private void logImport(ImportJob job) {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setAction("IMPORT_" + job.getType());
+        auditLog.setDetails("Import " + job.getId() + " of " + job.getFileName() + ": " + job.getMessage());
+        auditLog.setAdminId(job.getCreatedBy());
+        auditLog.setActionTimestamp(LocalDateTime.now());
+        auditLogRepository.save(auditLog);
+    }
+
+    /**
+     * Collects streamed rows into chunks and applies each chunk
+     */
+    private final class ChunkedImport {
+        private ImportJob job;
+        private Map<String, Integer> columns;
+        private final List<Row> buffer = new ArrayList<>();
+        private boolean usersCreated;
+        private boolean firstChunk = true;
+
+        private ChunkedImport(ImportJob job) {
+            this.job = job;
+        }
+
+        private void accept(long rowNumber, List<String> cells) {
+            if (columns == null) {
+                columns = header(cells);
+                return;
+            }
+            if (rowNumber <= job.getCheckpointRow()) {
+                return;
+            }
+            buffer.add(new Row(rowNumber, cells, columns));
+            if (buffer.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private Map<String, Integer> header(List<String> cells) {
+            Map<String, Integer> header = new HashMap<>();
+            for (int i = 0; i < cells.size(); i++) {
+                header.putIfAbsent(normalize(cells.get(i)), i);
+            }
+            List<String> missing = REQUIRED_COLUMNS.get(job.getType()).stream()
+                    .filter(column -> !header.containsKey(column))
+                    .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                throw new BadRequestException("Missing required columns: " + String.join(", ", missing));
+            }
+            return header;
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            List<Row> rows = new ArrayList<>(buffer);
+            buffer.clear();
+
+            Map<Long, String> errors = new HashMap<>();
+            Runnable apply;
+            switch (job.getType()) {
+                case USERS -> {
+                    // Registration commits its own batches before the checkpoint. A crash between the two
+                    // can only affect the chunk in flight, so the first chunk of a run counts users this
+                    // job already created as imported rather than as duplicates.
+                    usersCreated |= registerUsers(rows, errors, firstChunk ? job.getCreatedAt() : null);
+                    apply = () -> { };
+                }
+                case HOLIDAYS -> apply = () -> importHolidays(rows, errors);
+                case LEAVE_BALANCE_ADJUSTMENTS -> apply = () -> adjustBalances(rows, errors);
+                default -> throw new IllegalStateException("Unsupported import type " + job.getType());
+            }
+
+            firstChunk = false;
+            ImportJob current = job;
+            long lastRow = rows.get(rows.size() - 1).number;
+            job = transactionTemplate.execute(status -> {
+                apply.run();
+                if (!errors.isEmpty()) {
+                    importRowErrorRepository.saveAll(errors.entrySet().stream()
+                            .map(error -> new ImportRowError(current.getId(), error.getKey(), truncate(error.getValue())))
+                            .collect(Collectors.toList()));
+                }
+                current.setProcessedRows(current.getProcessedRows() + rows.size());
+                current.setSucceededRows(current.getSucceededRows() + rows.size() - errors.size());
+                current.setFailedRows(current.getFailedRows() + errors.size());
+                current.setCheckpointRow(lastRow);
+                current.setUpdatedAt(LocalDateTime.now());
+                return importJobRepository.save(current);
+            });
+        }
+    }
+
+    /**
+     * Register the rows' users, returning whether any were created. Users
+     * created since resumeSince with the same username and email are counted
+     * as imported; pass null to treat them as duplicates.
+     */
+    private boolean registerUsers(List<Row> rows, Map<Long, String> errors, LocalDateTime resumeSince) {
+        List<RegisterRequest> requests = new ArrayList<>();
+        List<Row> requestRows = new ArrayList<>();
+        for (Row row : rows) {
+            try {
+                RegisterRequest request = new RegisterRequest();
+                request.setUsername(row.get("username"));
+                request.setPassword(row.get("password"));
+                request.setFullName(row.get("fullname"));
+                request.setEmail(row.get("email"));
+                request.setDepartment(row.get("department"));
+                request.setPhone(row.get("phone"));
+                request.setEmergencyContact(row.get("emergencycontact"));
+                request.setJoiningDate(parseDate(row.get("joiningdate")));
+                String managerId = row.get("managerid");
+                request.setManagerId(managerId != null ? Long.valueOf(managerId) : null);
+                request.setRoles(parseRoles(row.get("roles")));
+                requests.add(request);
+                requestRows.add(row);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errors.put(row.number, invalidValue(e));
+            }
+        }
+        if (requests.isEmpty()) {
+            return false;
+        }
+
+        if (resumeSince != null) {
+            dropImported(requests, requestRows, resumeSince);
+            if (requests.isEmpty()) {
+                return false;
+            }
+        }
+
+        BulkRegistrationResponse response = userOnboardingService.registerWithoutReload(requests);
+        for (RowResult result : response.getResults()) {
+            if (!result.isSuccess()) {
+                errors.put(requestRows.get(result.getRow()).number, result.getMessage());
+            }
+        }
+        return response.getCreated() > 0;
+    }
+
+    // Remove the requests for users created since the given time with the same username and email
+    private void dropImported(List<RegisterRequest> requests, List<Row> requestRows, LocalDateTime since) {
+        LocalDateTime from = since.truncatedTo(ChronoUnit.SECONDS);
+        Map<String, User> imported = userRepository.findByUsernameIn(requests.stream()
+                .map(RegisterRequest::getUsername).filter(username -> username != null)
+                .collect(Collectors.toSet())).stream()
+                .filter(user -> user.getCreatedAt() != null && !user.getCreatedAt().isBefore(from))
+                .collect(Collectors.toMap(user -> user.getUsername().toLowerCase(Locale.ROOT), Function.identity(),
+                        (first, second) -> first));
+        for (int i = requests.size() - 1; i >= 0; i--) {
+            RegisterRequest request = requests.get(i);
+            User existing = request.getUsername() != null
+                    ? imported.get(request.getUsername().toLowerCase(Locale.ROOT))
+                    : null;
+            if (existing != null && existing.getEmail().equalsIgnoreCase(request.getEmail())) {
+                requests.remove(i);
+                requestRows.remove(i);
+            }
+        }
+    }
+
+    private void importHolidays(List<Row> rows, Map<Long, String> errors) {
+        Map<Long, Holiday> parsed = new HashMap<>();
+        for (Row row : rows) {
+            try {
+                Holiday holiday = new Holiday();
+                holiday.setName(row.get("name"));
+                holiday.setDate(parseDate(row.get("date")));
+                holiday.setType(row.get("type"));
+                holiday.setDescription(row.get("description"));
+                holiday.setIsRecurring(parseBoolean(row.get("recurring")));
+                if (holiday.getName() == null || holiday.getName().length() > 100) {
+                    errors.put(row.number, "Name is required and must be at most 100 characters");
+                } else if (holiday.getDate() == null) {
+                    errors.put(row.number, "Date is required");
+                } else if (holiday.getType() != null && holiday.getType().length() > 50
+                        || holiday.getDescription() != null && holiday.getDescription().length() > 255) {
+                    errors.put(row.number, "Type or description is too long");
+                } else {
+                    parsed.put(row.number, holiday);
+                }
+            } catch (DateTimeParseException e) {
+                errors.put(row.number, invalidValue(e));
+            }
+        }
+
+        Set<LocalDate> taken = parsed.isEmpty() ? Collections.emptySet()
+                : new HashSet<>(holidayRepository.findExistingDates(
+                        parsed.values().stream().map(Holiday::getDate).collect(Collectors.toSet())));
+        List<Holiday> toSave = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Row row : rows) {
+            Holiday holiday = parsed.get(row.number);
+            if (holiday == null) {
+                continue;
+            }
+            if (!taken.add(holiday.getDate())) {
+                errors.put(row.number, "A holiday already exists on " + holiday.getDate());
+                continue;
+            }
+            holiday.setCreatedAt(now);
+            holiday.setUpdatedAt(now);
+            toSave.add(holiday);
+        }
+        holidayRepository.saveAll(toSave);
+        if (!toSave.isEmpty()) {
+            eventPublisher.publishEvent(new HolidaysChangedEvent());
+        }
+    }
+
+    private void adjustBalances(List<Row> rows, Map<Long, String> errors) {
+        int currentYear = LocalDate.now().getYear();
+        Set<String> usernames = rows.stream()
+                .map(row -> row.get("username"))
+                .filter(username -> username != null)
+                .collect(Collectors.toSet());
+        Map<String, User> users = usernames.isEmpty() ? Collections.emptyMap()
+                : userRepository.findByUsernameIn(usernames).stream()
+                        .collect(Collectors.toMap(user -> user.getUsername().toLowerCase(Locale.ROOT),
+                                Function.identity(), (first, second) -> first));
+
+        Map<Integer, Map<String, LeaveBalance>> balancesByYear = new HashMap<>();
+        Map<String, LeaveBalance> changed = new HashMap<>();
+        for (Row row : rows) {
+            try {
+                String username = row.get("username");
+                User user = username != null ? users.get(username.toLowerCase(Locale.ROOT)) : null;
+                if (user == null) {
+                    errors.put(row.number, "Unknown user: " + username);
+                    continue;
+                }
+                String leaveTypeValue = row.get("leavetype");
+                String amountValue = row.get("amount");
+                if (leaveTypeValue == null || amountValue == null) {
+                    errors.put(row.number, "Leave type and amount are required");
+                    continue;
+                }
+                LeaveType leaveType = parseEnum(LeaveType.class, leaveTypeValue, "leave type");
+                float amount = Float.parseFloat(amountValue);
+                String yearValue = row.get("year");
+                int year = yearValue != null ? Integer.parseInt(yearValue) : currentYear;
+
+                Map<String, LeaveBalance> balances = balancesByYear.computeIfAbsent(year,
+                        y -> leaveBalanceRepository.findByUserIdInAndYear(
+                                users.values().stream().map(User::getId).collect(Collectors.toSet()), y)
+                                .stream()
+                                .collect(Collectors.toMap(b -> b.getUser().getId() + ":" + b.getLeaveType(),
+                                        Function.identity(), (first, second) -> first)));
+                String key = user.getId() + ":" + leaveType;
+                LeaveBalance balance = balances.get(key);
+                if (balance == null) {
+                    balance = new LeaveBalance(user, leaveType, 0f);
+                    balance.setYear(year);
+                    balances.put(key, balance);
+                }
+                float updated = balance.getBalance() + amount;
+                if (updated < 0) {
+                    errors.put(row.number, "Adjustment would make the " + leaveType + " balance negative ("
+                            + balance.getBalance() + " + " + amount + ")");
+                    continue;
+                }
+                balance.setBalance(updated);
+                balance.setUpdatedAt(LocalDateTime.now());
+                changed.put(year + ":" + key, balance);
+            } catch (IllegalArgumentException e) {
+                errors.put(row.number, invalidValue(e));
+            }
+        }
+        leaveBalanceRepository.saveAll(changed.values());
+    }
+
+    private static Set<UserRole> parseRoles(String value) {
+        if (value == null) {
+            return null;
+        }
+        Set<UserRole> roles = new HashSet<>();
+        for (String role : value.split("[;|]")) {
+            if (!role.isBlank()) {
+                roles.add(parseEnum(UserRole.class, role.trim(), "role"));
+            }
+        }
+        return roles;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String label) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown " + label + " '" + value + "'");
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        DateTimeParseException failure = null;
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    private static boolean parseBoolean(String value) {
+        return value != null && Set.of("true", "yes", "y", "1").contains(value.toLowerCase(Locale.ROOT));
+    }
+
+    private static String invalidValue(RuntimeException e) {
+        return "Invalid value: " + e.getMessage();
+    }
+
+    private static String normalize(String column) {
+        return column == null ? "" : column.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH)
+                : message;
+    }
+
+    private static final class Row {
+        private final long number;
+        private final List<String> cells;
+        private final Map<String, Integer> columns;
+
+        private Row(long number, List<String> cells, Map<String, Integer> columns) {
+            this.number = number;
+            this.cells = cells;
+            this.columns = columns;
+        }
+
+        // Trimmed cell value, or null when the column is absent or blank
+        private String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= cells.size()) {
+                return null;
+            }
+            String value = cells.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
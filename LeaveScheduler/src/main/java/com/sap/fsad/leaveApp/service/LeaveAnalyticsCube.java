@@ -0,0 +1,221 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sap.fsad.leaveApp.dto.request.LeaveAnalyticsFilter;
+import com.sap.fsad.leaveApp.dto.response.LeaveAnalyticsRow;
+import com.sap.fsad.leaveApp.dto.response.LeaveResponse;
+import com.sap.fsad.leaveApp.event.LeaveStatusChangedEvent;
+import com.sap.fsad.leaveApp.model.enums.AnalyticsDimension;
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+import com.sap.fsad.leaveApp.repository.LeaveApplicationRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Leave counts and day totals pre-aggregated by (year, month, department,
+ * leave type, status), with a leave counted in the month it starts. Queries
+ * scan the cube's cells instead of leave_applications, so their cost depends
+ * on the number of combinations rather than the number of leaves. The cube is
+ * loaded with one GROUP BY query and rebuilt periodically to absorb changes
+ * made outside status change events. After each committed status change the
+ * affected cells are recounted rather than adjusted by a delta, so a change
+ * already included in a concurrent rebuild is not counted twice.
+ */
+@Service
+@Slf4j
+public class LeaveAnalyticsCube {
+
+    @Autowired
+    private LeaveApplicationRepository leaveApplicationRepository;
+
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
+
+    // Serialises rebuilds and incremental updates
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Map<CellKey, Totals> cells = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.analytics.reload-interval-ms:3600000}",
+            initialDelayString = "${app.analytics.reload-interval-ms:3600000}")
+    public void reload() {
+        writeLock.lock();
+        try {
+            Map<CellKey, Totals> rebuilt = new ConcurrentHashMap<>();
+            for (Object[] row : leaveApplicationRepository.aggregateByMonth()) {
+                CellKey key = new CellKey(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                        (String) row[2], (LeaveType) row[3], (LeaveStatus) row[4]);
+                rebuilt.merge(key, new Totals(((Number) row[5]).longValue(), ((Number) row[6]).longValue()),
+                        Totals::plus);
+            }
+            cells = rebuilt;
+            log.debug("Loaded leave analytics with {} cells", rebuilt.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Recount the cells of the leave's previous and new status once the
+     * change has been committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaveStatusChanged(LeaveStatusChangedEvent event) {
+        LeaveResponse leave = event.getLeave();
+        if (leave == null || leave.getStartDate() == null || leave.getStatus() == null) {
+            return;
+        }
+        String department = orgHierarchyIndex.getDepartment(event.getUserId());
+        YearMonth month = YearMonth.from(leave.getStartDate());
+        Set<LeaveStatus> statuses = EnumSet.of(leave.getStatus());
+        if (event.getPreviousStatus() != null) {
+            statuses.add(event.getPreviousStatus());
+        }
+
+        writeLock.lock();
+        try {
+            Map<LeaveStatus, Totals> recounted = new EnumMap<>(LeaveStatus.class);
+            for (Object[] row : leaveApplicationRepository.aggregateCells(month.atDay(1), month.atEndOfMonth(),
+                    department, leave.getLeaveType(), statuses)) {
+                recounted.put((LeaveStatus) row[0],
+                        new Totals(((Number) row[1]).longValue(), ((Number) row[2]).longValue()));
+            }
+            for (LeaveStatus status : statuses) {
+                CellKey key = new CellKey(month.getYear(), month.getMonthValue(), department, leave.getLeaveType(),
+                        status);
+                Totals totals = recounted.get(status);
+                if (totals == null || (totals.count == 0 && totals.days == 0)) {
+                    cells.remove(key);
+                } else {
+                    cells.put(key, totals);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Totals for the cells matching the filter, grouped by the given
+     * dimensions. With no dimensions a single grand total is returned.
+     */
+    public List<LeaveAnalyticsRow> query(LeaveAnalyticsFilter filter, Collection<AnalyticsDimension> groupBy) {
+        LeaveAnalyticsFilter criteria = filter != null ? filter : new LeaveAnalyticsFilter();
+        Set<AnalyticsDimension> dimensions = groupBy == null || groupBy.isEmpty()
+                ? EnumSet.noneOf(AnalyticsDimension.class)
+                : EnumSet.copyOf(groupBy);
+
+        Map<CellKey, Totals> groups = new LinkedHashMap<>();
+        for (Map.Entry<CellKey, Totals> cell : cells.entrySet()) {
+            CellKey key = cell.getKey();
+            if (key.matches(criteria)) {
+                groups.merge(key.project(dimensions), cell.getValue(), Totals::plus);
+            }
+        }
+
+        List<LeaveAnalyticsRow> rows = new ArrayList<>(groups.size());
+        groups.forEach((key, totals) -> {
+            if (totals.count != 0 || totals.days != 0) {
+                rows.add(new LeaveAnalyticsRow(key.year, key.month, key.department, key.leaveType, key.status,
+                        totals.count, totals.days));
+            }
+        });
+        rows.sort(ROW_ORDER);
+        return rows;
+    }
+
+    private static final Comparator<LeaveAnalyticsRow> ROW_ORDER = Comparator
+            .comparing(LeaveAnalyticsRow::getYear, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(LeaveAnalyticsRow::getMonth, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(LeaveAnalyticsRow::getDepartment, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(LeaveAnalyticsRow::getLeaveType, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(LeaveAnalyticsRow::getStatus, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private static final class Totals {
+        private final long count;
+        private final long days;
+
+        private Totals(long count, long days) {
+            this.count = count;
+            this.days = days;
+        }
+
+        private Totals plus(Totals other) {
+            return new Totals(count + other.count, days + other.days);
+        }
+    }
+
+    private static final class CellKey {
+        private final Integer year;
+        private final Integer month;
+        private final String department;
+        private final LeaveType leaveType;
+        private final LeaveStatus status;
+
+        private CellKey(Integer year, Integer month, String department, LeaveType leaveType, LeaveStatus status) {
+            this.year = year;
+            this.month = month;
+            this.department = department;
+            this.leaveType = leaveType;
+            this.status = status;
+        }
+
+        private boolean matches(LeaveAnalyticsFilter filter) {
+            return (filter.getYear() == null || filter.getYear().equals(year))
+                    && (filter.getMonth() == null || filter.getMonth().equals(month))
+                    && (filter.getDepartment() == null || filter.getDepartment().equals(department))
+                    && (filter.getLeaveType() == null || filter.getLeaveType() == leaveType)
+                    && (filter.getStatus() == null || filter.getStatus() == status);
+        }
+
+        // The same cell with the dimensions that are not grouped by rolled up
+        private CellKey project(Set<AnalyticsDimension> dimensions) {
+            return new CellKey(
+                    dimensions.contains(AnalyticsDimension.YEAR) ? year : null,
+                    dimensions.contains(AnalyticsDimension.MONTH) ? month : null,
+                    dimensions.contains(AnalyticsDimension.DEPARTMENT) ? department : null,
+                    dimensions.contains(AnalyticsDimension.LEAVE_TYPE) ? leaveType : null,
+                    dimensions.contains(AnalyticsDimension.STATUS) ? status : null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CellKey)) {
+                return false;
+            }
+            CellKey other = (CellKey) o;
+            return Objects.equals(year, other.year) && Objects.equals(month, other.month)
+                    && Objects.equals(department, other.department) && leaveType == other.leaveType
+                    && status == other.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(year, month, department, leaveType, status);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.sap.fsad.leaveApp.dto.request.LeaveApprovalRequest;
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
 import com.sap.fsad.leaveApp.dto.response.LeaveResponse;
+import com.sap.fsad.leaveApp.event.LeaveStatusChangedEvent;
 import com.sap.fsad.leaveApp.exception.BadRequestException;
 import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
 import com.sap.fsad.leaveApp.model.AuditLog;
@@ -45,6 +47,12 @@ public class LeaveApprovalService {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
+
     /**
      * Get all pending leave applications for approval
      */
@@ -68,8 +76,7 @@ public class LeaveApprovalService {
                 .orElseThrow(() -> new ResourceNotFoundException("LeaveApplication", "id", id));
 
         // Check if the current user is the manager of the leave applicant
-        if (leaveApplication.getUser().getManager() == null ||
-                !leaveApplication.getUser().getManager().getId().equals(currentUser.getId())) {
+        if (!orgHierarchyIndex.isDirectManager(currentUser.getId(), leaveApplication.getUser().getId())) {
             throw new BadRequestException("You don't have permission to approve this leave application");
         }
 
@@ -119,6 +126,7 @@ public class LeaveApprovalService {
         // Notify employee
         notificationService.createLeaveApprovedNotification(leaveApplication.getUser(), leaveApplication);
         emailService.sendLeaveApprovedEmail(leaveApplication);
+        publishStatusChange(leaveApplication);
 
         return new ApiResponse(true, "Leave application approved successfully");
     }
@@ -133,8 +141,7 @@ public class LeaveApprovalService {
                 .orElseThrow(() -> new ResourceNotFoundException("LeaveApplication", "id", id));
 
         // Check if the current user is the manager of the leave applicant
-        if (leaveApplication.getUser().getManager() == null ||
-                !leaveApplication.getUser().getManager().getId().equals(currentUser.getId())) {
+        if (!orgHierarchyIndex.isDirectManager(currentUser.getId(), leaveApplication.getUser().getId())) {
             throw new BadRequestException("You don't have permission to reject this leave application");
         }
 
@@ -163,6 +170,7 @@ public class LeaveApprovalService {
         // Notify employee
         notificationService.createLeaveRejectedNotification(leaveApplication.getUser(), leaveApplication);
         emailService.sendLeaveRejectedEmail(leaveApplication);
+        publishStatusChange(leaveApplication);
 
         return new ApiResponse(true, "Leave application rejected successfully");
     }
@@ -193,6 +201,17 @@ public class LeaveApprovalService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Announce a status change to live subscribers once the transaction
+     * commits. Approval, rejection and auto-approval all start from PENDING.
+     */
+    private void publishStatusChange(LeaveApplication leaveApplication) {
+        User applicant = leaveApplication.getUser();
+        eventPublisher.publishEvent(new LeaveStatusChangedEvent(applicant.getId(),
+                applicant.getManager() != null ? applicant.getManager().getId() : null,
+                convertToLeaveResponse(leaveApplication), LeaveStatus.PENDING));
+    }
+
     /**
      * Convert LeaveApplication to LeaveResponse
      */
@@ -255,6 +274,7 @@ public class LeaveApprovalService {
             // Notify user
             notificationService.createLeaveApprovedNotification(leave.getUser(), leave);
             emailService.sendLeaveApprovedEmail(leave);
+            publishStatusChange(leave);
         }
     }
 }
\ No newline at end of file
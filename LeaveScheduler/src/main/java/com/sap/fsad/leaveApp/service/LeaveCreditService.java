@@ -73,18 +73,25 @@ public class LeaveCreditService {
         int currentYear = LocalDate.now().getYear();
         List<LeavePolicy> allPolicies = leavePolicyRepository.findByIsActiveTrue();
 
+        List<User> creditedUsers = new ArrayList<>();
         for (User user : activeUsers) {
+            boolean credited = false;
             for (LeavePolicy policy : allPolicies) {
                 if (user.getRoles().stream().anyMatch(policy.getApplicableRoles()::contains)) {
                     creditLeaveForUserAndPolicy(user, policy, currentYear);
-                    // Notify user
-                    notificationService.createLeaveCreditedNotification(user);
-                    emailService.sendLeaveCreditEmail(user);
+                    credited = true;
                 }
             }
+            if (credited) {
+                creditedUsers.add(user);
+                emailService.sendLeaveCreditEmail(user);
+            }
         }
 
-        return new ApiResponse(true, "Annual leave credited successfully for all users");
+        // Notify all credited users with one batched insert
+        int notified = notificationService.createLeaveCreditedNotifications(creditedUsers);
+
+        return new ApiResponse(true, "Annual leave credited successfully for all users", notified);
     }
 
     /**
@@ -162,6 +169,7 @@ public class LeaveCreditService {
     @Transactional
     public List<ApiResponse> creditSpecialLeave(List<Long> userIds, LeaveType leaveType, float amount, String reason) {
         List<ApiResponse> responses = new ArrayList<>();
+        List<User> creditedUsers = new ArrayList<>();
         int currentYear = LocalDate.now().getYear();
 
         for (Long userId : userIds) {
@@ -189,8 +197,7 @@ public class LeaveCreditService {
                     leaveBalanceRepository.save(newBalance);
                 }
 
-                // Notify user
-                notificationService.createSpecialLeaveCreditedNotification(user, leaveType, amount, reason);
+                creditedUsers.add(user);
                 emailService.sendSpecialLeaveCreditEmail(user, leaveType, amount, reason);
 
                 responses.add(
@@ -201,6 +208,9 @@ public class LeaveCreditService {
             }
         }
 
+        // Notify all credited users with one batched insert
+        notificationService.createSpecialLeaveCreditedNotifications(creditedUsers, leaveType, amount, reason);
+
         return responses;
     }
 }
\ No newline at end of file
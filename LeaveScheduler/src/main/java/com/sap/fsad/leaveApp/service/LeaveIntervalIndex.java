@@ -0,0 +1,177 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sap.fsad.leaveApp.dto.response.LeaveResponse;
+import com.sap.fsad.leaveApp.event.LeaveStatusChangedEvent;
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+import com.sap.fsad.leaveApp.repository.LeaveApplicationRepository;
+import com.sap.fsad.leaveApp.util.IntervalTree;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pending and approved leaves held in interval trees per department and
+ * overall, so team conflicts and "who is out on a day" are answered in
+ * O(log n) plus the number of matches without a query. Like the org index it
+ * is loaded at startup, updated after each committed status change and
+ * reloaded periodically. Trees are immutable and published together, so
+ * readers never lock and never see one tree updated without the other. The
+ * index only sees committed changes, so it serves reads; validation such as
+ * the overlap check on applying stays in the database.
+ */
+@Service
+@Slf4j
+public class LeaveIntervalIndex {
+
+    private static final Set<LeaveStatus> ACTIVE_STATUSES = EnumSet.of(LeaveStatus.PENDING, LeaveStatus.APPROVED);
+
+    @Autowired
+    private LeaveApplicationRepository leaveApplicationRepository;
+
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
+
+    // Serialises writers, including their reads, so an older row never overwrites a newer one
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Indexed leaves by ID, so a change can find the interval it replaces; guarded by writeLock
+    private Map<Long, LeaveSpan> spans = new HashMap<>();
+
+    private volatile Intervals intervals = new Intervals(Map.of(), IntervalTree.empty());
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.leave-index.reload-interval-ms:900000}",
+            initialDelayString = "${app.leave-index.reload-interval-ms:900000}")
+    public void reload() {
+        writeLock.lock();
+        try {
+            Map<Long, LeaveSpan> loaded = new HashMap<>();
+            Map<String, IntervalTree<LeaveSpan>> byDepartment = new HashMap<>();
+            IntervalTree<LeaveSpan> all = IntervalTree.empty();
+            for (Object[] row : leaveApplicationRepository.findLeaveSpans(ACTIVE_STATUSES)) {
+                LeaveSpan span = new LeaveSpan((Long) row[0], (Long) row[1], (String) row[2], (LocalDate) row[3],
+                        (LocalDate) row[4], (LeaveStatus) row[5]);
+                loaded.put(span.leaveId, span);
+                all = add(all, span);
+                addToDepartment(byDepartment, span);
+            }
+            spans = loaded;
+            intervals = new Intervals(byDepartment, all);
+            log.debug("Loaded leave interval index with {} leaves", loaded.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replace the leave's interval once its status change has been committed;
+     * leaves that are no longer pending or approved are dropped
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaveStatusChanged(LeaveStatusChangedEvent event) {
+        LeaveResponse leave = event.getLeave();
+        if (leave == null || leave.getId() == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Intervals current = intervals;
+            Map<String, IntervalTree<LeaveSpan>> byDepartment = new HashMap<>(current.byDepartment);
+            IntervalTree<LeaveSpan> all = current.all;
+
+            LeaveSpan previous = spans.remove(leave.getId());
+            if (previous != null) {
+                all = all.without(previous.leaveId, previous.startDate);
+                if (previous.department != null) {
+                    byDepartment.computeIfPresent(previous.department,
+                            (name, tree) -> emptyToNull(tree.without(previous.leaveId, previous.startDate)));
+                }
+            }
+            if (ACTIVE_STATUSES.contains(leave.getStatus()) && leave.getStartDate() != null
+                    && leave.getEndDate() != null) {
+                LeaveSpan span = new LeaveSpan(leave.getId(), event.getUserId(),
+                        orgHierarchyIndex.getDepartment(event.getUserId()), leave.getStartDate(),
+                        leave.getEndDate(), leave.getStatus());
+                spans.put(span.leaveId, span);
+                all = add(all, span);
+                addToDepartment(byDepartment, span);
+            }
+            intervals = new Intervals(byDepartment, all);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Pending and approved leaves in a department, or in all departments when
+     * department is null, that share a day with the range
+     */
+    public List<LeaveSpan> findOverlapping(String department, LocalDate startDate, LocalDate endDate) {
+        Intervals current = intervals;
+        IntervalTree<LeaveSpan> tree = department == null ? current.all
+                : current.byDepartment.getOrDefault(department, IntervalTree.empty());
+        return tree.overlapping(startDate, endDate);
+    }
+
+    /**
+     * Leaves of everyone in the department who is out on the given day
+     */
+    public List<LeaveSpan> findOutOn(String department, LocalDate date) {
+        return findOverlapping(department, date, date);
+    }
+
+    private static IntervalTree<LeaveSpan> add(IntervalTree<LeaveSpan> tree, LeaveSpan span) {
+        return tree.with(span.leaveId, span.startDate, span.endDate, span);
+    }
+
+    private static void addToDepartment(Map<String, IntervalTree<LeaveSpan>> byDepartment, LeaveSpan span) {
+        if (span.department != null) {
+            byDepartment.compute(span.department,
+                    (name, tree) -> add(tree != null ? tree : IntervalTree.empty(), span));
+        }
+    }
+
+    private static IntervalTree<LeaveSpan> emptyToNull(IntervalTree<LeaveSpan> tree) {
+        return tree.isEmpty() ? null : tree;
+    }
+
+    /**
+     * The interval of one pending or approved leave
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class LeaveSpan {
+        private final Long leaveId;
+        private final Long userId;
+        private final String department;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final LeaveStatus status;
+    }
+
+    // Never modified once published
+    private static final class Intervals {
+        private final Map<String, IntervalTree<LeaveSpan>> byDepartment;
+        private final IntervalTree<LeaveSpan> all;
+
+        private Intervals(Map<String, IntervalTree<LeaveSpan>> byDepartment, IntervalTree<LeaveSpan> all) {
+            this.byDepartment = byDepartment;
+            this.all = all;
+        }
+    }
+}
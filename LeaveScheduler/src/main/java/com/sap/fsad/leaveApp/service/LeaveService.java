@@ -2,19 +2,30 @@ package com.sap.fsad.leaveApp.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.sap.fsad.leaveApp.dto.request.LeaveApplicationRequest;
 import com.sap.fsad.leaveApp.dto.response.ApiResponse;
 import com.sap.fsad.leaveApp.dto.response.CalendarEventResponse;
+import com.sap.fsad.leaveApp.dto.response.CursorPageResponse;
 import com.sap.fsad.leaveApp.dto.response.LeaveBalanceResponse;
+import com.sap.fsad.leaveApp.dto.response.LeaveHistoryRow;
 import com.sap.fsad.leaveApp.dto.response.LeaveResponse;
+import com.sap.fsad.leaveApp.dto.response.LeaveUsageRow;
+import com.sap.fsad.leaveApp.event.LeaveStatusChangedEvent;
 import com.sap.fsad.leaveApp.exception.BadRequestException;
 import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
 import com.sap.fsad.leaveApp.model.Holiday;
@@ -24,15 +35,20 @@ import com.sap.fsad.leaveApp.model.LeavePolicy;
 import com.sap.fsad.leaveApp.model.User;
 import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
 import com.sap.fsad.leaveApp.model.enums.LeaveType;
+import com.sap.fsad.leaveApp.model.enums.UserRole;
 import com.sap.fsad.leaveApp.repository.LeaveApplicationRepository;
 import com.sap.fsad.leaveApp.repository.LeaveBalanceRepository;
 import com.sap.fsad.leaveApp.repository.LeavePolicyRepository;
+import com.sap.fsad.leaveApp.util.CursorUtil;
 import com.sap.fsad.leaveApp.util.DateUtil;
 import com.sap.fsad.leaveApp.util.LeaveCalculator;
+import com.sap.fsad.leaveApp.util.TokenHashUtil;
 
 @Service
 public class LeaveService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     @Autowired
     private LeaveApplicationRepository leaveApplicationRepository;
 
@@ -57,6 +73,18 @@ public class LeaveService {
     @Autowired
     private HolidayService holidayService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
+
+    @Autowired
+    private DepartmentCoverageService departmentCoverageService;
+
+    @Autowired
+    private LeaveIntervalIndex leaveIntervalIndex;
+
     /**
      * Apply for leave
      */
@@ -124,7 +152,8 @@ public class LeaveService {
                     + ", Required: " + workingDays);
         }
 
-        // Check for overlapping leave applications
+        // Check for overlapping leave applications. This reads the database, not the interval index, which
+        // only sees other applications once they have committed.
         if (leaveApplicationRepository.existsOverlappingLeave(
                 currentUser.getId(),
                 request.getStartDate(),
@@ -160,11 +189,19 @@ public class LeaveService {
 
         LeaveApplication savedApplication = leaveApplicationRepository.save(leaveApplication);
 
+        // Does not block the application; it goes to the manager with the notification and back to the applicant
+        String coverageWarning = departmentCoverageService.getCoverageWarning(currentUser.getDepartment(),
+                savedApplication.getStartDate(), savedApplication.getEndDate());
+
         // Notify manager
-        notificationService.createLeaveApplicationNotification(manager, savedApplication);
+        notificationService.createLeaveApplicationNotification(manager, savedApplication, coverageWarning);
         emailService.sendLeaveApplicationEmail(savedApplication);
 
-        return convertToLeaveResponse(savedApplication);
+        LeaveResponse response = convertToLeaveResponse(savedApplication);
+        eventPublisher.publishEvent(new LeaveStatusChangedEvent(currentUser.getId(), manager.getId(), response, null));
+        response.setCoverageWarning(coverageWarning);
+
+        return response;
     }
 
     /**
@@ -175,10 +212,10 @@ public class LeaveService {
         LeaveApplication leaveApplication = leaveApplicationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("LeaveApplication", "id", id));
 
-        // Check if the user has permission to view this leave
-        if (!leaveApplication.getUser().getId().equals(currentUser.getId()) &&
-                (currentUser.getManager() == null
-                        || !currentUser.getId().equals(leaveApplication.getUser().getManager().getId()))) {
+        // The applicant and anyone above them in the reporting line may view the leave
+        Long applicantId = leaveApplication.getUser().getId();
+        if (!applicantId.equals(currentUser.getId())
+                && !orgHierarchyIndex.isInReportingLine(applicantId, currentUser.getId())) {
             throw new BadRequestException("You don't have permission to view this leave application");
         }
 
@@ -188,13 +225,9 @@ public class LeaveService {
     /**
      * Get all leave applications for current user
      */
+    @Transactional(readOnly = true)
     public List<LeaveResponse> getCurrentUserLeaves() {
-        User currentUser = userService.getCurrentUser();
-        List<LeaveApplication> leaveApplications = leaveApplicationRepository.findByUserId(currentUser.getId());
-
-        return leaveApplications.stream()
-                .map(this::convertToLeaveResponse)
-                .collect(Collectors.toList());
+        return getLeaveHistory(null, null, null, null);
     }
 
     /**
@@ -243,6 +276,10 @@ public class LeaveService {
         notificationService.createLeaveWithdrawalNotification(currentUser.getManager(), leaveApplication);
         emailService.sendLeaveWithdrawalEmail(leaveApplication);
 
+        eventPublisher.publishEvent(new LeaveStatusChangedEvent(currentUser.getId(),
+                currentUser.getManager() != null ? currentUser.getManager().getId() : null,
+                convertToLeaveResponse(leaveApplication), LeaveStatus.PENDING));
+
         return new ApiResponse(true, "Leave application withdrawn successfully");
     }
 
@@ -288,28 +325,25 @@ public class LeaveService {
     }
 
     /**
-     * Get leave schedules and holidays for a specific user or department
+     * Get leave schedules and holidays for a specific user or department.
+     * Only leaves intersecting the month are read, as one projection query.
      */
+    @Transactional(readOnly = true)
     public List<CalendarEventResponse> getCalendarEvents(Long userId, String department, Integer month, Integer year) {
-        List<CalendarEventResponse> events = new ArrayList<>();
-
-        // Fetch leave applications
-        List<LeaveApplication> leaveApplications;
-        if (userId != null) {
-            leaveApplications = leaveApplicationRepository.findByUserId(userId);
-        } else if (department != null) {
-            leaveApplications = leaveApplicationRepository.findByUserDepartment(department);
-        } else {
-            leaveApplications = leaveApplicationRepository.findAll();
+        if (month == null || month < 1 || month > 12) {
+            throw new BadRequestException("Month must be between 1 and 12");
         }
+        YearMonth window = YearMonth.of(year, month);
+        List<CalendarEventResponse> events = new ArrayList<>();
 
-        for (LeaveApplication leave : leaveApplications) {
+        for (LeaveUsageRow leave : leaveApplicationRepository.findCalendarRows(window.atDay(1), window.atEndOfMonth(),
+                userId, userId == null ? department : null)) {
             events.add(new CalendarEventResponse(
                     leave.getStartDate(),
                     leave.getEndDate(),
-                    leave.getStatus().toString(),
-                    leave.getUser().getFullName(),
-                    leave.getLeaveType().toString(),
+                    String.valueOf(leave.getStatus()),
+                    leave.getEmployeeName(),
+                    String.valueOf(leave.getLeaveType()),
                     "Leave"));
         }
 
@@ -329,29 +363,134 @@ public class LeaveService {
     }
 
     /**
-     * Get leave history with optional filters
+     * Entity tag of a list of calendar events, so unchanged months can be
+     * answered with 304 Not Modified
+     */
+    public String getCalendarETag(List<CalendarEventResponse> events) {
+        StringBuilder content = new StringBuilder();
+        for (CalendarEventResponse event : events) {
+            content.append(event.getStartDate()).append('|').append(event.getEndDate()).append('|')
+                    .append(event.getStatus()).append('|').append(event.getUserName()).append('|')
+                    .append(event.getTitle()).append('|').append(event.getEventType()).append('\n');
+        }
+        return "\"" + TokenHashUtil.sha256Hex(content.toString()) + "\"";
+    }
+
+    /**
+     * Pending and approved leaves of colleagues in the current user's
+     * department that overlap the given range, showing only what the team
+     * calendar shows
+     */
+    @Transactional(readOnly = true)
+    public List<CalendarEventResponse> getTeamConflicts(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("End date cannot be before start date");
+        }
+        User currentUser = userService.getCurrentUser();
+        if (currentUser.getDepartment() == null) {
+            return new ArrayList<>();
+        }
+        return toCalendarEvents(leaveIntervalIndex.findOverlapping(currentUser.getDepartment(), startDate, endDate)
+                .stream()
+                .filter(span -> !span.getUserId().equals(currentUser.getId()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Pending and approved leaves of everyone out on the given day, for
+     * admins in any or all departments and for managers in their own
+     */
+    @Transactional(readOnly = true)
+    public List<CalendarEventResponse> getAbsences(LocalDate date, String department) {
+        User currentUser = userService.getCurrentUser();
+        if (!orgHierarchyIndex.hasAnyRole(currentUser.getId(), UserRole.ADMIN)
+                && !(orgHierarchyIndex.hasAnyRole(currentUser.getId(), UserRole.MANAGER)
+                        && department != null && department.equals(currentUser.getDepartment()))) {
+            throw new AccessDeniedException("You can only view the absences of your own department");
+        }
+        return toCalendarEvents(leaveIntervalIndex.findOutOn(department, date));
+    }
+
+    private List<CalendarEventResponse> toCalendarEvents(List<LeaveIntervalIndex.LeaveSpan> spans) {
+        if (spans.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Object[]> labels = leaveApplicationRepository.findLeaveLabels(spans.stream()
+                .map(LeaveIntervalIndex.LeaveSpan::getLeaveId)
+                .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], Function.identity()));
+        // Keep the index's order by start date
+        List<CalendarEventResponse> events = new ArrayList<>(spans.size());
+        for (LeaveIntervalIndex.LeaveSpan span : spans) {
+            Object[] label = labels.get(span.getLeaveId());
+            if (label != null) {
+                events.add(new CalendarEventResponse(span.getStartDate(), span.getEndDate(),
+                        String.valueOf(span.getStatus()), (String) label[1], String.valueOf(label[2]), "Leave"));
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Get the current user's whole leave history with optional filters,
+     * newest application first
      */
-    public List<LeaveResponse> getLeaveHistory(LocalDate startDate, LocalDate endDate, LeaveType leaveType) {
+    @Transactional(readOnly = true)
+    public List<LeaveResponse> getLeaveHistory(LocalDate startDate, LocalDate endDate, LeaveType leaveType,
+            LeaveStatus status) {
         User currentUser = userService.getCurrentUser();
+        validateHistoryRange(startDate, endDate);
 
-        List<LeaveApplication> leaveApplications = leaveApplicationRepository.findByUserId(currentUser.getId());
+        return leaveApplicationRepository.findHistoryFirstPage(currentUser.getId(), startDate, endDate, leaveType,
+                status, Pageable.unpaged()).stream()
+                .map(row -> convertToLeaveResponse(currentUser, row))
+                .collect(Collectors.toList());
+    }
 
-        // Apply filters
-        if (startDate != null && endDate != null) {
-            leaveApplications = leaveApplications.stream()
-                    .filter(leave -> !leave.getStartDate().isAfter(endDate) && !leave.getEndDate().isBefore(startDate))
-                    .collect(Collectors.toList());
+    /**
+     * Get one page of the current user's leave history with optional filters,
+     * newest application first
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<LeaveResponse> getLeaveHistoryPage(LocalDate startDate, LocalDate endDate,
+            LeaveType leaveType, LeaveStatus status, String cursor, int size) {
+        User currentUser = userService.getCurrentUser();
+        validateHistoryRange(startDate, endDate);
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<LeaveHistoryRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = leaveApplicationRepository.findHistoryFirstPage(currentUser.getId(), startDate, endDate,
+                    leaveType, status, limit);
+        } else {
+            CursorUtil.Cursor position = CursorUtil.decode(cursor);
+            rows = leaveApplicationRepository.findHistoryPageAfter(currentUser.getId(), startDate, endDate,
+                    leaveType, status, position.getTimestamp(), position.getId(), limit);
         }
 
-        if (leaveType != null) {
-            leaveApplications = leaveApplications.stream()
-                    .filter(leave -> leave.getLeaveType() == leaveType)
-                    .collect(Collectors.toList());
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
         }
 
-        return leaveApplications.stream()
-                .map(this::convertToLeaveResponse)
+        String nextCursor = null;
+        if (hasMore) {
+            LeaveHistoryRow last = rows.get(rows.size() - 1);
+            nextCursor = CursorUtil.encode(last.getAppliedOn(), last.getId());
+        }
+
+        List<LeaveResponse> items = rows.stream()
+                .map(row -> convertToLeaveResponse(currentUser, row))
                 .collect(Collectors.toList());
+        return new CursorPageResponse<>(items, nextCursor, hasMore);
+    }
+
+    private void validateHistoryRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new BadRequestException("Start date cannot be after end date");
+        }
     }
 
     private LeaveBalanceResponse convertToLeaveBalanceResponse(LeaveBalance leaveBalance) {
@@ -394,4 +533,30 @@ public class LeaveService {
 
         return response;
     }
+
+    private LeaveResponse convertToLeaveResponse(User applicant, LeaveHistoryRow row) {
+        LeaveResponse response = new LeaveResponse();
+        response.setId(row.getId());
+        response.setUserId(applicant.getId());
+        response.setUsername(applicant.getFullName());
+        response.setStartDate(row.getStartDate());
+        response.setEndDate(row.getEndDate());
+        response.setLeaveType(row.getLeaveType());
+        response.setReason(row.getReason());
+        response.setContactAddress(row.getContactAddress());
+        response.setContactPhone(row.getContactPhone());
+        response.setStatus(row.getStatus());
+        response.setNumberOfDays(row.getNumberOfDays());
+        response.setAppliedOn(row.getAppliedOn());
+
+        if (row.getApprovedById() != null) {
+            response.setApprovedById(row.getApprovedById());
+            response.setApprovedBy(row.getApprovedByName());
+            response.setApprovedOn(row.getApprovedOn());
+        }
+
+        response.setRemarks(row.getRemarks());
+
+        return response;
+    }
 }
\ No newline at end of file
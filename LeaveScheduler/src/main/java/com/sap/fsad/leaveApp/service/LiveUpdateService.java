@@ -0,0 +1,65 @@
+package com.sap.fsad.leaveApp.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sap.fsad.leaveApp.dto.response.LeaveResponse;
+import com.sap.fsad.leaveApp.dto.response.NotificationResponse;
+import com.sap.fsad.leaveApp.event.LeaveStatusChangedEvent;
+import com.sap.fsad.leaveApp.event.NotificationCreatedEvent;
+import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Bridges committed leave and notification events to reactive streams used by
+ * GraphQL subscriptions
+ */
+@Service
+public class LiveUpdateService {
+
+    // Best effort: a slow subscriber misses events rather than holding up the publishing transaction
+    private final Sinks.Many<LeaveStatusChangedEvent> leaveEvents = Sinks.many().multicast().directBestEffort();
+
+    private final Sinks.Many<NotificationCreatedEvent> notificationEvents = Sinks.many().multicast()
+            .directBestEffort();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaveStatusChanged(LeaveStatusChangedEvent event) {
+        leaveEvents.tryEmitNext(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        notificationEvents.tryEmitNext(event);
+    }
+
+    /**
+     * Status changes of leave applications owned by a user
+     */
+    public Flux<LeaveResponse> leaveStatusChanges(Long userId) {
+        return leaveEvents.asFlux()
+                .filter(event -> userId.equals(event.getUserId()))
+                .map(LeaveStatusChangedEvent::getLeave);
+    }
+
+    /**
+     * New pending leave applications awaiting a manager's approval
+     */
+    public Flux<LeaveResponse> pendingApprovals(Long managerId) {
+        return leaveEvents.asFlux()
+                .filter(event -> managerId.equals(event.getManagerId()))
+                .filter(event -> event.getLeave().getStatus() == LeaveStatus.PENDING)
+                .map(LeaveStatusChangedEvent::getLeave);
+    }
+
+    /**
+     * New notifications for a user
+     */
+    public Flux<NotificationResponse> notifications(Long userId) {
+        return notificationEvents.asFlux()
+                .filter(event -> userId.equals(event.getUserId()))
+                .map(NotificationCreatedEvent::getNotification);
+    }
+}
@@ -0,0 +1,62 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects successful-login timestamps in memory and writes them in periodic
+ * JDBC batches, so the login path does not pay for an entity load and save.
+ * Only the latest login per user is kept between flushes.
+ */
+@Service
+@Slf4j
+public class LoginActivityService {
+
+    private static final String UPDATE_LAST_LOGIN_SQL = "UPDATE users SET last_login = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+
+    public void recordLogin(Long userId) {
+        pendingLogins.put(userId, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login.activity-flush-ms:5000}")
+    public void flush() {
+        if (pendingLogins.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        for (Long userId : new ArrayList<>(pendingLogins.keySet())) {
+            LocalDateTime lastLogin = pendingLogins.remove(userId);
+            if (lastLogin != null) {
+                batch.add(new Object[] { Timestamp.valueOf(lastLogin), userId });
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, batch);
+            log.debug("Recorded last login for {} users", batch.size());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
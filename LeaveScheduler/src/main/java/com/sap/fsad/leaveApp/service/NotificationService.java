@@ -1,12 +1,34 @@
 package com.sap.fsad.leaveApp.service;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sap.fsad.leaveApp.dto.request.NotificationDraft;
+import com.sap.fsad.leaveApp.dto.response.CursorPageResponse;
+import com.sap.fsad.leaveApp.dto.response.NotificationResponse;
+import com.sap.fsad.leaveApp.event.NotificationCreatedEvent;
+import com.sap.fsad.leaveApp.event.NotificationsReadEvent;
 import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
 import com.sap.fsad.leaveApp.model.LeaveApplication;
 import com.sap.fsad.leaveApp.model.Notification;
@@ -14,35 +36,69 @@ import com.sap.fsad.leaveApp.model.User;
 import com.sap.fsad.leaveApp.model.enums.LeaveType;
 import com.sap.fsad.leaveApp.model.enums.NotificationType;
 import com.sap.fsad.leaveApp.repository.NotificationRepository;
+import com.sap.fsad.leaveApp.util.CursorUtil;
+import com.sap.fsad.leaveApp.util.JdbcKeyUtil;
+
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 public class NotificationService {
 
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+
+    /** Matches the size limit on the notification message column */
+    private static final int MAX_MESSAGE_LENGTH = 255;
+
+    private static final String INSERT_NOTIFICATION_SQL = "INSERT INTO notifications "
+            + "(user_id, type, title, message, related_entity_id, is_read, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired
     private NotificationRepository notificationRepository;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.notifications.batch-size:500}")
+    private int insertBatchSize;
+
+    @Value("${app.notifications.read-retention-days:90}")
+    private int readRetentionDays;
+
     /**
-     * Create a notification for a leave application
+     * Create a notification for a leave application, appending the department
+     * coverage warning (if any) so the approver sees it
      */
     @Transactional
-    public Notification createLeaveApplicationNotification(User user, LeaveApplication leaveApplication) {
+    public Notification createLeaveApplicationNotification(User user, LeaveApplication leaveApplication,
+            String coverageWarning) {
+        String message = leaveApplication.getUser().getFullName() + " has applied for " +
+                leaveApplication.getNumberOfDays() + " days of " + leaveApplication.getLeaveType() + " leave";
+        if (coverageWarning != null) {
+            message = message + ". " + coverageWarning;
+            if (message.length() > MAX_MESSAGE_LENGTH) {
+                message = message.substring(0, MAX_MESSAGE_LENGTH - 3) + "...";
+            }
+        }
+
         Notification notification = new Notification();
         notification.setUser(user);
         notification.setType(NotificationType.LEAVE_APPLICATION);
         notification.setTitle("New Leave Application");
-        notification.setMessage(leaveApplication.getUser().getFullName() + " has applied for " +
-                leaveApplication.getNumberOfDays() + " days of " + leaveApplication.getLeaveType() + " leave");
+        notification.setMessage(message);
         notification.setIsRead(false);
         notification.setRelatedEntityId(leaveApplication.getId());
         notification.setCreatedAt(LocalDateTime.now());
         notification.setUpdatedAt(LocalDateTime.now());
 
-        Notification savedNotification = notificationRepository.save(notification);
-
-        return savedNotification;
+        return saveAndPublish(notification);
     }
 
     /**
@@ -61,7 +117,7 @@ public class NotificationService {
         notification.setCreatedAt(LocalDateTime.now());
         notification.setUpdatedAt(LocalDateTime.now());
 
-        return notificationRepository.save(notification);
+        return saveAndPublish(notification);
     }
 
     /**
@@ -80,7 +136,7 @@ public class NotificationService {
         notification.setCreatedAt(LocalDateTime.now());
         notification.setUpdatedAt(LocalDateTime.now());
 
-        return notificationRepository.save(notification);
+        return saveAndPublish(notification);
     }
 
     /**
@@ -99,7 +155,7 @@ public class NotificationService {
         notification.setCreatedAt(LocalDateTime.now());
         notification.setUpdatedAt(LocalDateTime.now());
 
-        return notificationRepository.save(notification);
+        return saveAndPublish(notification);
     }
 
     /**
@@ -107,16 +163,19 @@ public class NotificationService {
      */
     @Transactional
     public Notification createLeaveCreditedNotification(User user) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setType(NotificationType.LEAVE_CREDIT);
-        notification.setTitle("Leave Balance Updated");
-        notification.setMessage("Your annual leave balance has been updated. Please check your balance.");
-        notification.setIsRead(false);
-        notification.setCreatedAt(LocalDateTime.now());
-        notification.setUpdatedAt(LocalDateTime.now());
+        return saveAndPublish(toNotification(user, leaveCreditedDraft(user)));
+    }
 
-        return notificationRepository.save(notification);
+    /**
+     * Create leave credit notifications for many users in one batched write
+     */
+    @Transactional
+    public int createLeaveCreditedNotifications(Collection<User> users) {
+        List<NotificationDraft> drafts = new ArrayList<>(users.size());
+        for (User user : users) {
+            drafts.add(leaveCreditedDraft(user));
+        }
+        return createNotifications(drafts);
     }
 
     /**
@@ -125,17 +184,75 @@ public class NotificationService {
     @Transactional
     public Notification createSpecialLeaveCreditedNotification(User user, LeaveType leaveType, float amount,
             String reason) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setType(NotificationType.LEAVE_CREDIT);
-        notification.setTitle("Special Leave Credited");
-        notification.setMessage(
-                amount + " days of " + leaveType + " leave has been credited to your account. Reason: " + reason);
-        notification.setIsRead(false);
-        notification.setCreatedAt(LocalDateTime.now());
-        notification.setUpdatedAt(LocalDateTime.now());
+        return saveAndPublish(toNotification(user, specialLeaveCreditedDraft(user, leaveType, amount, reason)));
+    }
 
-        return notificationRepository.save(notification);
+    /**
+     * Create special leave credit notifications for many users in one batched write
+     */
+    @Transactional
+    public int createSpecialLeaveCreditedNotifications(Collection<User> users, LeaveType leaveType, float amount,
+            String reason) {
+        List<NotificationDraft> drafts = new ArrayList<>(users.size());
+        for (User user : users) {
+            drafts.add(specialLeaveCreditedDraft(user, leaveType, amount, reason));
+        }
+        return createNotifications(drafts);
+    }
+
+    /**
+     * Insert many notifications using JDBC batches and return the number of rows
+     * written. Live subscribers are notified after the surrounding transaction
+     * commits, as with single notifications.
+     */
+    @Transactional
+    public int createNotifications(Collection<NotificationDraft> drafts) {
+        if (drafts.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationDraft> pending = new ArrayList<>(drafts);
+        int inserted = 0;
+
+        for (int from = 0; from < pending.size(); from += insertBatchSize) {
+            List<NotificationDraft> batch = pending.subList(from, Math.min(from + insertBatchSize, pending.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+
+            // Plain JDBC keeps the IDENTITY key batchable; Hibernate would insert row by row
+            int[] counts = jdbcTemplate.batchUpdate(
+                    con -> con.prepareStatement(INSERT_NOTIFICATION_SQL, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            NotificationDraft draft = batch.get(i);
+                            ps.setLong(1, draft.getUserId());
+                            ps.setString(2, draft.getType().name());
+                            ps.setString(3, draft.getTitle());
+                            ps.setString(4, draft.getMessage());
+                            if (draft.getRelatedEntityId() != null) {
+                                ps.setLong(5, draft.getRelatedEntityId());
+                            } else {
+                                ps.setNull(5, Types.BIGINT);
+                            }
+                            ps.setBoolean(6, false);
+                            ps.setTimestamp(7, Timestamp.valueOf(now));
+                            ps.setTimestamp(8, Timestamp.valueOf(now));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    },
+                    keyHolder);
+
+            inserted += countInserted(counts);
+            publishBatch(batch, keyHolder.getKeyList(), now);
+        }
+
+        log.debug("Inserted {} notifications in batches of {}", inserted, insertBatchSize);
+        return inserted;
     }
 
     /**
@@ -146,6 +263,46 @@ public class NotificationService {
         return notificationRepository.findByUserOrderByCreatedAtDesc(currentUser);
     }
 
+    /**
+     * Get one page of the current user's inbox, newest first
+     */
+    public CursorPageResponse<NotificationResponse> getCurrentUserInbox(String cursor, int size, boolean unreadOnly) {
+        User currentUser = userService.getCurrentUser();
+        int pageSize = Math.max(1, Math.min(size, MAX_INBOX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<Notification> notifications;
+        if (cursor == null || cursor.isBlank()) {
+            notifications = unreadOnly
+                    ? notificationRepository.findUnreadInboxFirstPage(currentUser.getId(), limit)
+                    : notificationRepository.findInboxFirstPage(currentUser.getId(), limit);
+        } else {
+            CursorUtil.Cursor position = CursorUtil.decode(cursor);
+            notifications = unreadOnly
+                    ? notificationRepository.findUnreadInboxPageAfter(currentUser.getId(), position.getTimestamp(),
+                            position.getId(), limit)
+                    : notificationRepository.findInboxPageAfter(currentUser.getId(), position.getTimestamp(),
+                            position.getId(), limit);
+        }
+
+        boolean hasMore = notifications.size() > pageSize;
+        if (hasMore) {
+            notifications = notifications.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Notification last = notifications.get(notifications.size() - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+
+        List<NotificationResponse> items = notifications.stream()
+                .map(this::convertToNotificationResponse)
+                .collect(Collectors.toList());
+        return new CursorPageResponse<>(items, nextCursor, hasMore);
+    }
+
     /**
      * Get unread notifications for current user
      */
@@ -173,6 +330,8 @@ public class NotificationService {
         notification.setIsRead(true);
         notification.setUpdatedAt(LocalDateTime.now());
         notificationRepository.save(notification);
+
+        eventPublisher.publishEvent(new NotificationsReadEvent(notification.getUser().getId()));
     }
 
     /**
@@ -181,13 +340,89 @@ public class NotificationService {
     @Transactional
     public void markAllNotificationsAsRead() {
         User currentUser = userService.getCurrentUser();
-        List<Notification> notifications = notificationRepository.findByUserAndIsReadFalse(currentUser);
+        int updated = notificationRepository.markAllAsReadByUserId(currentUser.getId(), LocalDateTime.now());
 
-        for (Notification notification : notifications) {
-            notification.setIsRead(true);
-            notification.setUpdatedAt(LocalDateTime.now());
+        if (updated > 0) {
+            eventPublisher.publishEvent(new NotificationsReadEvent(currentUser.getId()));
         }
+    }
+
+    /**
+     * Scheduled task to remove read notifications past the retention period
+     */
+    @Scheduled(cron = "0 30 2 * * *") // Runs daily at 02:30
+    @Transactional
+    public void purgeExpiredReadNotifications() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(readRetentionDays);
+        int deleted = notificationRepository.deleteReadNotificationsUpdatedBefore(cutoff);
+        log.info("Purged {} read notifications older than {} days", deleted, readRetentionDays);
+    }
 
-        notificationRepository.saveAll(notifications);
+    /**
+     * Save a notification and announce it to live subscribers after commit
+     */
+    private Notification saveAndPublish(Notification notification) {
+        Notification savedNotification = notificationRepository.save(notification);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(savedNotification.getUser().getId(),
+                convertToNotificationResponse(savedNotification)));
+        return savedNotification;
+    }
+
+    private void publishBatch(List<NotificationDraft> batch, List<Map<String, Object>> keys, LocalDateTime createdAt) {
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationDraft draft = batch.get(i);
+            Long id = i < keys.size() ? JdbcKeyUtil.extractId(keys.get(i)) : null;
+            eventPublisher.publishEvent(new NotificationCreatedEvent(draft.getUserId(),
+                    new NotificationResponse(id, draft.getTitle(), draft.getMessage(), draft.getType(),
+                            draft.getRelatedEntityId(), false, createdAt)));
+        }
+    }
+
+    private static int countInserted(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            // Rewritten MySQL batches report SUCCESS_NO_INFO instead of a row count
+            total += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return total;
+    }
+
+    private static NotificationDraft leaveCreditedDraft(User user) {
+        return new NotificationDraft(user.getId(), NotificationType.LEAVE_CREDIT, "Leave Balance Updated",
+                "Your annual leave balance has been updated. Please check your balance.", null);
+    }
+
+    private static NotificationDraft specialLeaveCreditedDraft(User user, LeaveType leaveType, float amount,
+            String reason) {
+        return new NotificationDraft(user.getId(), NotificationType.LEAVE_CREDIT, "Special Leave Credited",
+                amount + " days of " + leaveType + " leave has been credited to your account. Reason: " + reason,
+                null);
+    }
+
+    private static Notification toNotification(User user, NotificationDraft draft) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setType(draft.getType());
+        notification.setTitle(draft.getTitle());
+        notification.setMessage(draft.getMessage());
+        notification.setRelatedEntityId(draft.getRelatedEntityId());
+        notification.setIsRead(false);
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setUpdatedAt(LocalDateTime.now());
+        return notification;
+    }
+
+    /**
+     * Convert Notification to NotificationResponse
+     */
+    public NotificationResponse convertToNotificationResponse(Notification notification) {
+        return new NotificationResponse(
+                notification.getId(),
+                notification.getTitle(),
+                notification.getMessage(),
+                notification.getType(),
+                notification.getRelatedEntityId(),
+                notification.getIsRead(),
+                notification.getCreatedAt());
     }
 }
\ No newline at end of file
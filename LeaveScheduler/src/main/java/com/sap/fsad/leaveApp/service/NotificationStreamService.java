@@ -0,0 +1,124 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.sap.fsad.leaveApp.dto.response.NotificationResponse;
+import com.sap.fsad.leaveApp.event.NotificationCreatedEvent;
+import com.sap.fsad.leaveApp.event.NotificationsReadEvent;
+import com.sap.fsad.leaveApp.repository.NotificationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class NotificationStreamService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${app.notifications.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final Map<Long, Set<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+
+    /**
+     * Open a server-sent event stream for a user and send the current unread count
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emittersByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(emitter);
+
+        emitter.onCompletion(() -> removeEmitter(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> removeEmitter(userId, emitter));
+
+        send(userId, emitter, SseEmitter.event()
+                .name("unread-count")
+                .data(notificationRepository.countUnreadNotificationsByUserId(userId)));
+        return emitter;
+    }
+
+    /**
+     * Push a new notification and the updated unread count once the creating
+     * transaction has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        Set<SseEmitter> emitters = emittersByUser.get(event.getUserId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+
+        NotificationResponse payload = event.getNotification();
+        long unreadCount = notificationRepository.countUnreadNotificationsByUserId(event.getUserId());
+        for (SseEmitter emitter : emitters) {
+            send(event.getUserId(), emitter, SseEmitter.event()
+                    .name("notification")
+                    .data(payload, MediaType.APPLICATION_JSON));
+            send(event.getUserId(), emitter, SseEmitter.event().name("unread-count").data(unreadCount));
+        }
+    }
+
+    /**
+     * Push the updated unread count after notifications are marked as read
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsRead(NotificationsReadEvent event) {
+        Set<SseEmitter> emitters = emittersByUser.get(event.getUserId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+
+        long unreadCount = notificationRepository.countUnreadNotificationsByUserId(event.getUserId());
+        for (SseEmitter emitter : emitters) {
+            send(event.getUserId(), emitter, SseEmitter.event().name("unread-count").data(unreadCount));
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies and detect disconnected clients
+     */
+    @Scheduled(fixedRateString = "${app.notifications.stream.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        emittersByUser.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    /**
+     * Number of currently open streams, across all users
+     */
+    public int getActiveConnectionCount() {
+        return emittersByUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream for user {}: {}", userId, e.getMessage());
+            removeEmitter(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void removeEmitter(Long userId, SseEmitter emitter) {
+        emittersByUser.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,241 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.sap.fsad.leaveApp.event.OrgStructureChangedEvent;
+import com.sap.fsad.leaveApp.model.enums.UserRole;
+import com.sap.fsad.leaveApp.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory org tree built from User.manager. Answers reporting-line checks by
+ * walking up from the user, lists direct and indirect reports by walking down
+ * the subtree, and keeps department rosters, all without touching the database.
+ * The database stays the source of truth: the tree is loaded at startup, the
+ * affected user is re-read after each committed change, and the whole tree is
+ * reloaded periodically.
+ */
+@Service
+@Slf4j
+public class OrgHierarchyIndex {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Serialises writers, including their reads, so an older row never overwrites a newer one
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile OrgTree tree = new OrgTree();
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.org-index.reload-interval-ms:900000}",
+            initialDelayString = "${app.org-index.reload-interval-ms:900000}")
+    public void reload() {
+        writeLock.lock();
+        try {
+            Map<Long, Set<UserRole>> roles = new HashMap<>();
+            for (Object[] row : userRepository.findAllUserRoles()) {
+                roles.computeIfAbsent((Long) row[0], id -> EnumSet.noneOf(UserRole.class)).add((UserRole) row[1]);
+            }
+
+            OrgTree rebuilt = new OrgTree();
+            for (Object[] row : userRepository.findOrgRows()) {
+                Long userId = (Long) row[0];
+                rebuilt.put(new OrgNode(userId, (Long) row[1], (String) row[2], (Boolean) row[3],
+                        roles.getOrDefault(userId, EnumSet.noneOf(UserRole.class))));
+            }
+            tree = rebuilt;
+            log.debug("Loaded org hierarchy with {} users", rebuilt.nodes.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Re-read a single user once the change to them has been committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrgStructureChanged(OrgStructureChangedEvent event) {
+        refresh(event.getUserId());
+    }
+
+    public void refresh(Long userId) {
+        writeLock.lock();
+        try {
+            List<Object[]> rows = userRepository.findOrgRowById(userId);
+            Set<UserRole> roles = EnumSet.noneOf(UserRole.class);
+            roles.addAll(userRepository.findRolesByUserId(userId));
+
+            tree.remove(userId);
+            if (!rows.isEmpty()) {
+                Object[] row = rows.get(0);
+                tree.put(new OrgNode(userId, (Long) row[1], (String) row[2], (Boolean) row[3], roles));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean contains(Long userId) {
+        return tree.nodes.containsKey(userId);
+    }
+
+    public Long getManagerId(Long userId) {
+        OrgNode node = tree.nodes.get(userId);
+        return node != null ? node.managerId : null;
+    }
+
+    public String getDepartment(Long userId) {
+        OrgNode node = tree.nodes.get(userId);
+        return node != null ? node.department : null;
+    }
+
+    public boolean isActive(Long userId) {
+        OrgNode node = tree.nodes.get(userId);
+        return node != null && node.active;
+    }
+
+    public boolean hasAnyRole(Long userId, UserRole... roles) {
+        OrgNode node = tree.nodes.get(userId);
+        if (node == null) {
+            return false;
+        }
+        for (UserRole role : roles) {
+            if (node.roles.contains(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isDirectManager(Long managerId, Long userId) {
+        return managerId != null && managerId.equals(getManagerId(userId));
+    }
+
+    /**
+     * Whether managerId appears anywhere above userId in the reporting line
+     */
+    public boolean isInReportingLine(Long userId, Long managerId) {
+        if (userId == null || managerId == null) {
+            return false;
+        }
+        Map<Long, OrgNode> nodes = tree.nodes;
+        // The depth bound guards against a cycle introduced by an inconsistent edit
+        int remaining = nodes.size();
+        OrgNode node = nodes.get(userId);
+        while (node != null && node.managerId != null && remaining-- > 0) {
+            if (node.managerId.equals(managerId)) {
+                return true;
+            }
+            node = nodes.get(node.managerId);
+        }
+        return false;
+    }
+
+    public List<Long> getDirectReports(Long managerId) {
+        Set<Long> reports = tree.reports.get(managerId);
+        return reports != null ? new ArrayList<>(reports) : Collections.emptyList();
+    }
+
+    /**
+     * Direct and indirect reports of a manager, breadth first
+     */
+    public List<Long> getAllReports(Long managerId) {
+        Map<Long, Set<Long>> reports = tree.reports;
+        List<Long> result = new ArrayList<>();
+        Set<Long> visited = new HashSet<>();
+        visited.add(managerId);
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(managerId);
+        while (!queue.isEmpty()) {
+            Set<Long> direct = reports.get(queue.poll());
+            if (direct == null) {
+                continue;
+            }
+            for (Long reportId : direct) {
+                if (visited.add(reportId)) {
+                    result.add(reportId);
+                    queue.add(reportId);
+                }
+            }
+        }
+        return result;
+    }
+
+    public List<Long> getDepartmentRoster(String department) {
+        Set<Long> members = department != null ? tree.departments.get(department) : null;
+        return members != null ? new ArrayList<>(members) : Collections.emptyList();
+    }
+
+    private static final class OrgNode {
+        private final Long id;
+        private final Long managerId;
+        private final String department;
+        private final boolean active;
+        private final Set<UserRole> roles;
+
+        private OrgNode(Long id, Long managerId, String department, Boolean active, Set<UserRole> roles) {
+            this.id = id;
+            this.managerId = managerId;
+            this.department = department;
+            this.active = Boolean.TRUE.equals(active);
+            this.roles = roles;
+        }
+    }
+
+    private static final class OrgTree {
+        private final Map<Long, OrgNode> nodes = new ConcurrentHashMap<>();
+        // Manager ID -> direct report IDs
+        private final Map<Long, Set<Long>> reports = new ConcurrentHashMap<>();
+        // Department -> member IDs
+        private final Map<String, Set<Long>> departments = new ConcurrentHashMap<>();
+
+        private void put(OrgNode node) {
+            nodes.put(node.id, node);
+            if (node.managerId != null) {
+                reports.computeIfAbsent(node.managerId, id -> ConcurrentHashMap.newKeySet()).add(node.id);
+            }
+            if (node.department != null) {
+                departments.computeIfAbsent(node.department, d -> ConcurrentHashMap.newKeySet()).add(node.id);
+            }
+        }
+
+        private void remove(Long userId) {
+            OrgNode node = nodes.remove(userId);
+            if (node == null) {
+                return;
+            }
+            if (node.managerId != null) {
+                removeMember(reports, node.managerId, userId);
+            }
+            if (node.department != null) {
+                removeMember(departments, node.department, userId);
+            }
+        }
+
+        private static <K> void removeMember(Map<K, Set<Long>> index, K key, Long userId) {
+            index.computeIfPresent(key, (k, members) -> {
+                members.remove(userId);
+                return members.isEmpty() ? null : members;
+            });
+        }
+    }
+}
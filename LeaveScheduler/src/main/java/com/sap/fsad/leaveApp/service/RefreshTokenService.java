@@ -0,0 +1,122 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sap.fsad.leaveApp.exception.BadRequestException;
+import com.sap.fsad.leaveApp.model.RefreshToken;
+import com.sap.fsad.leaveApp.model.User;
+import com.sap.fsad.leaveApp.repository.BlacklistTokenRepository;
+import com.sap.fsad.leaveApp.repository.RefreshTokenRepository;
+import com.sap.fsad.leaveApp.util.TokenHashUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private BlacklistTokenRepository blacklistTokenRepository;
+
+    @Value("${app.jwt.refresh-expiration-ms:1209600000}")
+    private long refreshExpirationMs;
+
+    /**
+     * Issue a refresh token starting a new family (a new login)
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Issue a refresh token in an existing family and return its raw value;
+     * only the hash is stored
+     */
+    @Transactional
+    public String issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(user);
+        refreshToken.setTokenHash(TokenHashUtil.sha256Hex(rawToken));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setExpiryDate(now.plusNanos(refreshExpirationMs * 1_000_000));
+        refreshTokenRepository.save(refreshToken);
+
+        return rawToken;
+    }
+
+    /**
+     * Spend a refresh token. A token that was already used or revoked means it
+     * has leaked, so every token in its family is revoked. The revocation must
+     * survive the exception, hence no rollback for BadRequestException.
+     */
+    @Transactional(noRollbackFor = BadRequestException.class)
+    public RefreshToken consume(String rawToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex(rawToken))
+                .orElseThrow(() -> new BadRequestException("Invalid refresh token"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshToken.getExpiryDate().isBefore(now)) {
+            throw new BadRequestException("Refresh token has expired");
+        }
+
+        if (refreshTokenRepository.markUsed(refreshToken.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(refreshToken.getFamilyId(), now);
+            log.warn("Refresh token reuse detected for user {}; revoked token family {}",
+                    refreshToken.getUser().getId(), refreshToken.getFamilyId());
+            throw new BadRequestException("Invalid refresh token");
+        }
+
+        return refreshToken;
+    }
+
+    /**
+     * Revoke the family of a refresh token, e.g. when its session logs out
+     */
+    @Transactional
+    public void revokeFamily(String rawToken) {
+        refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256Hex(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Revoke every refresh token of a user, e.g. after a password change
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Scheduled task to delete expired refresh tokens and blacklist entries;
+     * an expired access token is rejected on its own, so its row is dead weight
+     */
+    @Scheduled(cron = "0 15 * * * *") // Runs hourly at quarter past
+    @Transactional
+    public void purgeExpiredTokens() {
+        int refreshTokens = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        int blacklisted = blacklistTokenRepository.deleteExpiredBefore(new Date());
+        log.info("Purged {} expired refresh tokens and {} expired blacklist entries", refreshTokens, blacklisted);
+    }
+}
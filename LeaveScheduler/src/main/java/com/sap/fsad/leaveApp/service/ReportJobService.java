@@ -0,0 +1,268 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sap.fsad.leaveApp.dto.request.LeaveReportFilter;
+import com.sap.fsad.leaveApp.dto.request.ReportJobRequest;
+import com.sap.fsad.leaveApp.exception.BadRequestException;
+import com.sap.fsad.leaveApp.exception.RateLimitExceededException;
+import com.sap.fsad.leaveApp.exception.ResourceNotFoundException;
+import com.sap.fsad.leaveApp.model.ReportJob;
+import com.sap.fsad.leaveApp.model.enums.ReportFormat;
+import com.sap.fsad.leaveApp.model.enums.ReportJobStatus;
+import com.sap.fsad.leaveApp.repository.ReportJobRepository;
+import com.sap.fsad.leaveApp.util.TokenHashUtil;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates leave usage exports on a bounded worker pool into a local file
+ * store, so large exports do not hold a request thread. A request for a
+ * report that is already queued, running or finished for the same spec and
+ * data version returns that job instead of generating it again. Finished
+ * files expire after a configurable time.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Value("${app.reports.jobs.directory:${java.io.tmpdir}/leave-scheduler-reports}")
+    private String directory;
+
+    @Value("${app.reports.jobs.concurrency:2}")
+    private int concurrency;
+
+    @Value("${app.reports.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.reports.jobs.ttl-ms:3600000}")
+    private long ttlMs;
+
+    @Value("${app.reports.jobs.history-days:7}")
+    private int historyDays;
+
+    private ThreadPoolExecutor executor;
+
+    // Serializes the cache lookup and job creation so identical requests share one job
+    private final ReentrantLock submitLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, concurrency);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new CustomizableThreadFactory("Report-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a report, or return the existing job for the same spec and data
+     */
+    public ReportJob submit(ReportJobRequest request, Long userId) {
+        LeaveReportFilter filter = reportService.normalize(request.getFilter());
+        String specHash = specHash(request.getFormat(), filter);
+
+        submitLock.lock();
+        try {
+            String dataVersion = reportService.getDataVersion();
+            Optional<ReportJob> cached = reportJobRepository
+                    .findFirstBySpecHashAndDataVersionAndStatusInOrderByCreatedAtDesc(specHash, dataVersion,
+                            EnumSet.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING, ReportJobStatus.COMPLETED))
+                    .filter(this::isReusable);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+
+            ReportJob job = new ReportJob();
+            job.setId(UUID.randomUUID().toString());
+            job.setFormat(request.getFormat());
+            job.setStartDate(filter.getStartDate());
+            job.setEndDate(filter.getEndDate());
+            job.setDepartment(filter.getDepartment());
+            job.setLeaveStatus(filter.getStatus());
+            job.setLeaveType(filter.getLeaveType());
+            job.setSpecHash(specHash);
+            job.setDataVersion(dataVersion);
+            job.setStatus(ReportJobStatus.QUEUED);
+            job.setCreatedBy(userId);
+            job.setCreatedAt(LocalDateTime.now());
+            job = reportJobRepository.save(job);
+
+            String id = job.getId();
+            try {
+                executor.execute(() -> run(id));
+            } catch (RejectedExecutionException e) {
+                reportJobRepository.deleteById(id);
+                throw new RateLimitExceededException("Too many reports are being generated, please try again shortly");
+            }
+            return job;
+        } finally {
+            submitLock.unlock();
+        }
+    }
+
+    public ReportJob getJob(String id) {
+        return reportJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Report job", "id", id));
+    }
+
+    /**
+     * The generated file of a finished job
+     */
+    public Path getFile(ReportJob job) {
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new BadRequestException("Report is not ready (status " + job.getStatus() + ")");
+        }
+        Path file = Paths.get(job.getFilePath());
+        if (!Files.isRegularFile(file)) {
+            throw new BadRequestException("Report file is no longer available");
+        }
+        return file;
+    }
+
+    public String getDownloadName(ReportJob job) {
+        return "leave-usage" + extension(job.getFormat());
+    }
+
+    /**
+     * Jobs that were queued or running when the application stopped will not
+     * finish; mark them failed so the next request generates a fresh report
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        for (ReportJob job : reportJobRepository.findByStatusIn(
+                EnumSet.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING))) {
+            deleteQuietly(Paths.get(directory).toAbsolutePath().resolve(job.getId() + ".part").toString());
+            job.setStatus(ReportJobStatus.FAILED);
+            job.setMessage("Interrupted by a restart");
+            reportJobRepository.save(job);
+        }
+    }
+
+    /**
+     * Delete files of expired reports and forget old failed and expired jobs
+     */
+    @Scheduled(fixedRateString = "${app.reports.jobs.cleanup-interval-ms:300000}")
+    @Transactional
+    public void expireReports() {
+        LocalDateTime now = LocalDateTime.now();
+        for (ReportJob job : reportJobRepository.findByStatusAndExpiresAtBefore(ReportJobStatus.COMPLETED, now)) {
+            deleteQuietly(job.getFilePath());
+            job.setStatus(ReportJobStatus.EXPIRED);
+            job.setFilePath(null);
+            reportJobRepository.save(job);
+        }
+        reportJobRepository.deleteByStatusInAndCreatedAtBefore(
+                EnumSet.of(ReportJobStatus.EXPIRED, ReportJobStatus.FAILED), now.minusDays(historyDays));
+    }
+
+    private void run(String id) {
+        ReportJob job = reportJobRepository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(ReportJobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job = reportJobRepository.save(job);
+
+        Path target = Paths.get(directory).toAbsolutePath().resolve(id + extension(job.getFormat()));
+        Path partial = target.resolveSibling(id + ".part");
+        try {
+            Files.createDirectories(target.getParent());
+            LeaveReportFilter filter = new LeaveReportFilter(job.getStartDate(), job.getEndDate(),
+                    job.getDepartment(), job.getLeaveStatus(), job.getLeaveType());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                if (job.getFormat() == ReportFormat.PDF) {
+                    reportService.exportLeaveUsageToPDF(filter, out);
+                } else {
+                    reportService.exportLeaveUsageToExcel(filter, out);
+                }
+            }
+            // Only complete files ever appear under the final name
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            LocalDateTime now = LocalDateTime.now();
+            job.setStatus(ReportJobStatus.COMPLETED);
+            job.setFilePath(target.toString());
+            job.setFileSize(Files.size(target));
+            job.setCompletedAt(now);
+            job.setExpiresAt(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+            reportJobRepository.save(job);
+        } catch (Exception e) {
+            log.warn("Report job {} failed: {}", id, e.getMessage());
+            deleteQuietly(partial.toString());
+            job.setStatus(ReportJobStatus.FAILED);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.setMessage(message.length() > 500 ? message.substring(0, 500) : message);
+            job.setCompletedAt(LocalDateTime.now());
+            reportJobRepository.save(job);
+        }
+    }
+
+    private boolean isReusable(ReportJob job) {
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            return true;
+        }
+        return job.getExpiresAt() != null && job.getExpiresAt().isAfter(LocalDateTime.now())
+                && job.getFilePath() != null && Files.isRegularFile(Paths.get(job.getFilePath()));
+    }
+
+    private static String specHash(ReportFormat format, LeaveReportFilter filter) {
+        String spec = String.join("|", "leave-usage", String.valueOf(format),
+                String.valueOf(filter.getStartDate()), String.valueOf(filter.getEndDate()),
+                String.valueOf(filter.getDepartment()), String.valueOf(filter.getStatus()),
+                String.valueOf(filter.getLeaveType()));
+        return TokenHashUtil.sha256Hex(spec);
+    }
+
+    private static String extension(ReportFormat format) {
+        return format == ReportFormat.PDF ? ".pdf" : ".xlsx";
+    }
+
+    private static void deleteQuietly(String path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(path));
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}: {}", path, e.getMessage());
+        }
+    }
+}
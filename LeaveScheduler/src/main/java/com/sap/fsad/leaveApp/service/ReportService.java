@@ -1,33 +1,72 @@
 package com.sap.fsad.leaveApp.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
-import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.UnitValue;
+import com.sap.fsad.leaveApp.dto.request.LeaveReportFilter;
+import com.sap.fsad.leaveApp.dto.response.LeaveReportRow;
+import com.sap.fsad.leaveApp.dto.response.LeaveUsageRow;
+import com.sap.fsad.leaveApp.exception.BadRequestException;
 import com.sap.fsad.leaveApp.model.Holiday;
 import com.sap.fsad.leaveApp.model.LeaveApplication;
 import com.sap.fsad.leaveApp.model.enums.LeaveStatus;
 import com.sap.fsad.leaveApp.repository.HolidayRepository;
 import com.sap.fsad.leaveApp.repository.LeaveApplicationRepository;
+import com.sap.fsad.leaveApp.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class ReportService {
 
+    private static final int MAX_REPORT_PAGE_SIZE = 500;
+
     @Autowired
     private LeaveApplicationRepository leaveApplicationRepository;
 
     @Autowired
     private HolidayRepository holidayRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.reports.export.excel-row-window:100}")
+    private int excelRowWindow;
+
+    @Value("${app.reports.export.pdf-flush-rows:100}")
+    private int pdfFlushRows;
+
+    @PostConstruct
+    public void init() {
+        // Checked here rather than mid-export, when the response is already committed
+        excelRowWindow = Math.max(1, excelRowWindow);
+        pdfFlushRows = Math.max(1, pdfFlushRows);
+    }
+
     /**
      * Get leave usage report for all users
      */
@@ -36,6 +75,42 @@ public class ReportService {
         return report;
     }
 
+    /**
+     * Get a page of the leave report, projected to the report columns and
+     * filtered in the query, newest leaves first
+     */
+    public Page<LeaveReportRow> getLeaveReport(LeaveReportFilter filter, int page, int size) {
+        LeaveReportFilter criteria = normalize(filter);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_REPORT_PAGE_SIZE),
+                Sort.by(Sort.Direction.DESC, "startDate", "id"));
+        return leaveApplicationRepository.findReportRows(criteria.getStartDate(), criteria.getEndDate(),
+                criteria.getDepartment(), criteria.getStatus(), criteria.getLeaveType(), pageable);
+    }
+
+    /**
+     * Validate report filters, returning a copy with blank values cleared
+     */
+    public LeaveReportFilter normalize(LeaveReportFilter filter) {
+        LeaveReportFilter criteria = filter != null ? filter : new LeaveReportFilter();
+        if (criteria.getStartDate() != null && criteria.getEndDate() != null
+                && criteria.getStartDate().isAfter(criteria.getEndDate())) {
+            throw new BadRequestException("Start date must not be after end date");
+        }
+        String department = StringUtils.hasText(criteria.getDepartment()) ? criteria.getDepartment().trim() : null;
+        return new LeaveReportFilter(criteria.getStartDate(), criteria.getEndDate(), department,
+                criteria.getStatus(), criteria.getLeaveType());
+    }
+
+    /**
+     * Identifies the state of the data reports are built from. It changes when
+     * a leave is added, removed or updated, or a user is updated.
+     */
+    public String getDataVersion() {
+        LocalDateTime leavesUpdated = leaveApplicationRepository.findLatestUpdate();
+        LocalDateTime usersUpdated = userRepository.findLatestUpdate();
+        return leaveApplicationRepository.count() + ":" + leavesUpdated + ":" + usersUpdated;
+    }
+
     /**
      * Get pending approvals report
      */
@@ -53,56 +128,87 @@ public class ReportService {
     }
 
     /**
-     * Export leave usage report to Excel
+     * Stream the leave usage report to Excel. Rows are streamed from the
+     * database and only a small window of rows is kept in memory while the
+     * workbook is built, so memory use stays flat regardless of row count.
      */
-    public byte[] exportLeaveUsageToExcel(List<LeaveApplication> leaveApplications) throws Exception {
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Leave Usage");
-
-        // Header row
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Employee");
-        headerRow.createCell(1).setCellValue("Leave Type");
-        headerRow.createCell(2).setCellValue("Start Date");
-        headerRow.createCell(3).setCellValue("End Date");
-        headerRow.createCell(4).setCellValue("Status");
-
-        // Data rows
-        int rowNum = 1;
-        for (LeaveApplication leave : leaveApplications) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(leave.getUser().getFullName());
-            row.createCell(1).setCellValue(leave.getLeaveType().toString());
-            row.createCell(2).setCellValue(leave.getStartDate().toString());
-            row.createCell(3).setCellValue(leave.getEndDate().toString());
-            row.createCell(4).setCellValue(leave.getStatus().toString());
+    @Transactional(readOnly = true)
+    public void exportLeaveUsageToExcel(LeaveReportFilter filter, OutputStream out) throws IOException {
+        LeaveReportFilter criteria = normalize(filter);
+        SXSSFWorkbook workbook = new SXSSFWorkbook(excelRowWindow);
+        workbook.setCompressTempFiles(true);
+        try (Stream<LeaveUsageRow> rows = streamRows(criteria)) {
+            Sheet sheet = workbook.createSheet("Leave Usage");
+
+            // Header row
+            Row headerRow = sheet.createRow(0);
+            headerRow.createCell(0).setCellValue("Employee");
+            headerRow.createCell(1).setCellValue("Leave Type");
+            headerRow.createCell(2).setCellValue("Start Date");
+            headerRow.createCell(3).setCellValue("End Date");
+            headerRow.createCell(4).setCellValue("Status");
+
+            // Data rows
+            int[] rowNum = { 1 };
+            rows.forEach(leave -> {
+                Row row = sheet.createRow(rowNum[0]++);
+                row.createCell(0).setCellValue(leave.getEmployeeName());
+                row.createCell(1).setCellValue(leave.getLeaveType().toString());
+                row.createCell(2).setCellValue(leave.getStartDate().toString());
+                row.createCell(3).setCellValue(leave.getEndDate().toString());
+                row.createCell(4).setCellValue(leave.getStatus().toString());
+            });
+
+            workbook.write(out);
+            out.flush();
+        } finally {
+            // Remove the temporary files holding rows already flushed out of the window
+            workbook.dispose();
+            workbook.close();
         }
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        workbook.write(out);
-        workbook.close();
-
-        return out.toByteArray();
     }
 
     /**
-     * Export leave usage report to PDF
+     * Stream the leave usage report to PDF as a table. The table is built in
+     * large-table mode and flushed every few rows, so finished pages are
+     * written to the response while later rows are still being read.
      */
-    public byte[] exportLeaveUsageToPDF(List<LeaveApplication> leaveApplications) throws Exception {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
+    @Transactional(readOnly = true)
+    public void exportLeaveUsageToPDF(LeaveReportFilter filter, OutputStream out) throws IOException {
+        LeaveReportFilter criteria = normalize(filter);
         PdfWriter writer = new PdfWriter(out);
-        Document document = new Document(new com.itextpdf.kernel.pdf.PdfDocument(writer));
-
-        document.add(new Paragraph("Leave Usage Report"));
-        for (LeaveApplication leave : leaveApplications) {
-            document.add(new Paragraph(leave.getUser().getFullName() + " - " +
-                    leave.getLeaveType() + " - " +
-                    leave.getStartDate() + " to " + leave.getEndDate() + " - " +
-                    leave.getStatus()));
+        // The response stream is closed by the container, not by iText
+        writer.setCloseStream(false);
+        try (Document document = new Document(new PdfDocument(writer), PageSize.A4);
+                Stream<LeaveUsageRow> rows = streamRows(criteria)) {
+            document.add(new Paragraph("Leave Usage Report").simulateBold().setFontSize(14));
+
+            Table table = new Table(UnitValue.createPercentArray(new float[] { 30, 18, 17, 17, 18 }), true)
+                    .useAllAvailableWidth();
+            // Header cells are repeated on every page
+            for (String header : new String[] { "Employee", "Leave Type", "Start Date", "End Date", "Status" }) {
+                table.addHeaderCell(new Cell().add(new Paragraph(header).simulateBold()));
+            }
+            document.add(table);
+
+            int[] count = { 0 };
+            rows.forEach(leave -> {
+                table.addCell(leave.getEmployeeName());
+                table.addCell(leave.getLeaveType().toString());
+                table.addCell(leave.getStartDate().toString());
+                table.addCell(leave.getEndDate().toString());
+                table.addCell(leave.getStatus().toString());
+                if (++count[0] % pdfFlushRows == 0) {
+                    table.flush();
+                }
+            });
+            table.complete();
         }
+        out.flush();
+    }
 
-        document.close();
-
-        return out.toByteArray();
+    private Stream<LeaveUsageRow> streamRows(LeaveReportFilter criteria) {
+        return leaveApplicationRepository.streamLeaveUsage(criteria.getStartDate(), criteria.getEndDate(),
+                criteria.getDepartment(), criteria.getStatus(), criteria.getLeaveType());
     }
-}
\ No newline at end of file
+}
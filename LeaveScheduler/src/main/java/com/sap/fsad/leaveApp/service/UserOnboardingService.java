@@ -0,0 +1,362 @@
+package com.sap.fsad.leaveApp.service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sap.fsad.leaveApp.dto.request.RegisterRequest;
+import com.sap.fsad.leaveApp.dto.response.BulkRegistrationResponse;
+import com.sap.fsad.leaveApp.dto.response.BulkRegistrationResponse.RowResult;
+import com.sap.fsad.leaveApp.exception.BadRequestException;
+import com.sap.fsad.leaveApp.exception.RateLimitExceededException;
+import com.sap.fsad.leaveApp.model.LeavePolicy;
+import com.sap.fsad.leaveApp.model.enums.LeaveType;
+import com.sap.fsad.leaveApp.model.enums.UserRole;
+import com.sap.fsad.leaveApp.repository.LeavePolicyRepository;
+import com.sap.fsad.leaveApp.repository.UserRepository;
+import com.sap.fsad.leaveApp.security.PasswordHashingService;
+import com.sap.fsad.leaveApp.util.JdbcKeyUtil;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk onboarding of users. Rows are validated up front with set queries for
+ * existing usernames, emails and managers, passwords are hashed in parallel,
+ * and users, roles and leave balances are written with JDBC batches. Each chunk
+ * commits on its own, so one bad chunk does not undo the rest, and every row
+ * gets a result.
+ */
+@Service
+@Slf4j
+public class UserOnboardingService {
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users "
+            + "(username, password, full_name, email, department, manager_id, joining_date, phone, "
+            + "emergency_contact, is_active, is_account_locked, failed_login_attempts, lock_time, "
+            + "created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_roles (user_id, roles) VALUES (?, ?)";
+
+    private static final String INSERT_LEAVE_BALANCE_SQL = "INSERT INTO leave_balances "
+            + "(user_id, leave_type, balance, used, leave_year, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Keeps IN lists well below database parameter limits
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeavePolicyRepository leavePolicyRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.onboarding.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.onboarding.max-rows:10000}")
+    private int maxRows;
+
+    public BulkRegistrationResponse registerAll(List<RegisterRequest> requests) {
+        BulkRegistrationResponse response = registerWithoutReload(requests);
+        if (response.getCreated() > 0) {
+            orgHierarchyIndex.reload();
+        }
+        return response;
+    }
+
+    /**
+     * Register the users without reloading the org hierarchy index, for
+     * callers that register several batches and reload once at the end
+     */
+    public BulkRegistrationResponse registerWithoutReload(List<RegisterRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("No users to register");
+        }
+        if (requests.size() > maxRows) {
+            throw new BadRequestException("Cannot register more than " + maxRows + " users at once");
+        }
+
+        RowResult[] results = new RowResult[requests.size()];
+        List<Integer> accepted = validate(requests, results);
+
+        // Policies are resolved once for the whole import instead of per user and role
+        Map<UserRole, List<LeavePolicy>> policiesByRole = policiesByRole();
+        int currentYear = LocalDateTime.now().getYear();
+
+        int created = 0;
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + chunkSize, accepted.size()));
+            try {
+                // A rejected or failed hashing run only fails this chunk, like a failed insert
+                List<NewUser> users = prepare(requests, chunk);
+                transactionTemplate.executeWithoutResult(status -> insert(users, policiesByRole, currentYear));
+                for (NewUser user : users) {
+                    results[user.row] = new RowResult(user.row, user.request.getUsername(), true, user.id,
+                            "User registered successfully");
+                }
+                created += users.size();
+            } catch (DataAccessException | IllegalStateException | RejectedExecutionException
+                    | RateLimitExceededException e) {
+                log.warn("Bulk registration chunk of {} users failed: {}", chunk.size(), e.getMessage());
+                for (int row : chunk) {
+                    results[row] = new RowResult(row, requests.get(row).getUsername(), false, null,
+                            "Not registered: the batch containing this row could not be saved");
+                }
+            }
+        }
+
+        log.info("Bulk registration created {} of {} users", created, requests.size());
+        return new BulkRegistrationResponse(requests.size(), created, requests.size() - created, List.of(results));
+    }
+
+    /**
+     * Check every row and return the positions of the rows that can be inserted.
+     * Rejected rows get their result filled in.
+     */
+    private List<Integer> validate(List<RegisterRequest> requests, RowResult[] results) {
+        // Compared case-insensitively, matching the default MySQL collation of the unique keys
+        Set<String> existingUsernames = lookup(requests.stream().filter(Objects::nonNull)
+                .map(RegisterRequest::getUsername).filter(Objects::nonNull).collect(Collectors.toSet()),
+                userRepository::findExistingUsernames).stream()
+                .map(u -> u.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        Set<String> existingEmails = lookup(requests.stream().filter(Objects::nonNull)
+                .map(RegisterRequest::getEmail).filter(Objects::nonNull).collect(Collectors.toSet()),
+                userRepository::findExistingEmails).stream()
+                .map(e -> e.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        Set<Long> existingManagers = lookup(requests.stream().filter(Objects::nonNull)
+                .map(RegisterRequest::getManagerId).filter(Objects::nonNull).collect(Collectors.toSet()),
+                userRepository::findExistingIds);
+
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>();
+        for (int row = 0; row < requests.size(); row++) {
+            RegisterRequest request = requests.get(row);
+            String error = validateRow(request, existingUsernames, existingEmails, existingManagers,
+                    seenUsernames, seenEmails);
+            if (error != null) {
+                results[row] = new RowResult(row, request != null ? request.getUsername() : null, false, null, error);
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private String validateRow(RegisterRequest request, Set<String> existingUsernames, Set<String> existingEmails,
+            Set<Long> existingManagers, Set<String> seenUsernames, Set<String> seenEmails) {
+        if (request == null) {
+            return "Empty row";
+        }
+
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!AuthService.isValidPassword(request.getPassword())) {
+            return "Password does not meet the required strength";
+        }
+
+        String username = request.getUsername().toLowerCase(Locale.ROOT);
+        String email = request.getEmail().toLowerCase(Locale.ROOT);
+        if (existingUsernames.contains(username)) {
+            return "Username is already taken";
+        }
+        if (existingEmails.contains(email)) {
+            return "Email is already in use";
+        }
+        if (request.getManagerId() != null && !existingManagers.contains(request.getManagerId())) {
+            return "Manager not found with id: " + request.getManagerId();
+        }
+        if (!seenUsernames.add(username)) {
+            return "Duplicate username in this request";
+        }
+        if (!seenEmails.add(email)) {
+            return "Duplicate email in this request";
+        }
+        return null;
+    }
+
+    private List<NewUser> prepare(List<RegisterRequest> requests, List<Integer> rows) {
+        List<String> passwords = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            passwords.add(requests.get(row).getPassword());
+        }
+        List<String> hashes = passwordHashingService.encodeAll(passwords);
+
+        List<NewUser> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            RegisterRequest request = requests.get(rows.get(i));
+            Set<UserRole> roles = request.getRoles() != null && !request.getRoles().isEmpty()
+                    ? EnumSet.copyOf(request.getRoles())
+                    : EnumSet.of(UserRole.EMPLOYEE);
+            users.add(new NewUser(rows.get(i), request, hashes.get(i), roles));
+        }
+        return users;
+    }
+
+    private void insert(List<NewUser> users, Map<UserRole, List<LeavePolicy>> policiesByRole, int year) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        // Plain JDBC keeps the IDENTITY key batchable; Hibernate would insert row by row
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_USER_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NewUser user = users.get(i);
+                        RegisterRequest request = user.request;
+                        ps.setString(1, request.getUsername());
+                        ps.setString(2, user.passwordHash);
+                        ps.setString(3, request.getFullName());
+                        ps.setString(4, request.getEmail());
+                        ps.setString(5, request.getDepartment());
+                        if (request.getManagerId() != null) {
+                            ps.setLong(6, request.getManagerId());
+                        } else {
+                            ps.setNull(6, Types.BIGINT);
+                        }
+                        if (request.getJoiningDate() != null) {
+                            ps.setDate(7, Date.valueOf(request.getJoiningDate()));
+                        } else {
+                            ps.setNull(7, Types.DATE);
+                        }
+                        ps.setString(8, request.getPhone());
+                        ps.setString(9, request.getEmergencyContact());
+                        ps.setBoolean(10, true);
+                        ps.setBoolean(11, false);
+                        ps.setInt(12, 0);
+                        ps.setLong(13, 0L);
+                        ps.setTimestamp(14, now);
+                        ps.setTimestamp(15, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != users.size()) {
+            throw new IllegalStateException("Expected " + users.size() + " generated keys but got " + keys.size());
+        }
+
+        List<Object[]> roleRows = new ArrayList<>();
+        List<Object[]> balanceRows = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            NewUser user = users.get(i);
+            user.id = JdbcKeyUtil.extractId(keys.get(i));
+            if (user.id == null) {
+                throw new IllegalStateException("No generated key returned for inserted user");
+            }
+            for (UserRole role : user.roles) {
+                roleRows.add(new Object[] { user.id, role.name() });
+            }
+            for (LeavePolicy policy : policiesFor(user.roles, policiesByRole)) {
+                balanceRows.add(new Object[] { user.id, policy.getLeaveType().name(), policy.getAnnualCredit(), 0f,
+                        year, now, now });
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, roleRows);
+        jdbcTemplate.batchUpdate(INSERT_LEAVE_BALANCE_SQL, balanceRows);
+    }
+
+    private Map<UserRole, List<LeavePolicy>> policiesByRole() {
+        Map<UserRole, List<LeavePolicy>> policiesByRole = new EnumMap<>(UserRole.class);
+        for (LeavePolicy policy : leavePolicyRepository.findAllActiveWithRoles()) {
+            for (UserRole role : policy.getApplicableRoles()) {
+                policiesByRole.computeIfAbsent(role, r -> new ArrayList<>()).add(policy);
+            }
+        }
+        return policiesByRole;
+    }
+
+    // A policy shared by several of the user's roles yields one balance, not one per role
+    private static Collection<LeavePolicy> policiesFor(Set<UserRole> roles,
+            Map<UserRole, List<LeavePolicy>> policiesByRole) {
+        Map<LeaveType, LeavePolicy> byType = new LinkedHashMap<>();
+        for (UserRole role : roles) {
+            for (LeavePolicy policy : policiesByRole.getOrDefault(role, List.of())) {
+                byType.putIfAbsent(policy.getLeaveType(), policy);
+            }
+        }
+        return byType.values();
+    }
+
+    private static <T> Set<T> lookup(Set<T> values, Function<Collection<T>, List<T>> query) {
+        Set<T> found = new HashSet<>();
+        List<T> pending = new ArrayList<>(values);
+        for (int from = 0; from < pending.size(); from += LOOKUP_BATCH_SIZE) {
+            found.addAll(query.apply(pending.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, pending.size()))));
+        }
+        return found;
+    }
+
+    private static final class NewUser {
+        private final int row;
+        private final RegisterRequest request;
+        private final String passwordHash;
+        private final Set<UserRole> roles;
+        private Long id;
+
+        private NewUser(int row, RegisterRequest request, String passwordHash, Set<UserRole> roles) {
+            this.row = row;
+            this.request = request;
+            this.passwordHash = passwordHash;
+            this.roles = roles;
+        }
+    }
+}
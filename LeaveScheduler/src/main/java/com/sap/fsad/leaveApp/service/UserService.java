@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -27,6 +28,8 @@ import com.sap.fsad.leaveApp.repository.LeaveBalanceRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.sap.fsad.leaveApp.repository.UserRepository;
+import com.sap.fsad.leaveApp.security.CurrentUserContext;
+import com.sap.fsad.leaveApp.security.CustomUserDetails;
 
 @Service
 public class UserService {
@@ -40,15 +43,26 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CurrentUserContext currentUserContext;
+
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
+
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
     /**
-     * Get current logged-in user
+     * Get current logged-in user, resolved once per request
      */
     public User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof CustomUserDetails principal) {
+            return currentUserContext.get(principal.getId());
+        }
+
+        return currentUserContext.getByUsername(authentication.getName(), username -> userRepository
+                .findByUsernameWithRoles(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username)));
     }
 
     /**
@@ -86,38 +100,67 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public List<UserResponse> getUsersByManagerId(Long managerId) {
+        List<UserResponse> managedUsers = getUsersByManagerId(managerId, false);
+
+        // Optional: Throw exception if no managed users (or return empty list based on
+        // requirements)
+        if (managedUsers.isEmpty()) {
+            throw new ResourceNotFoundException("No users found under manager with id: " + managerId);
+        }
+        return managedUsers;
+    }
+
+    /**
+     * Get users by manager ID, returning an empty list instead of throwing when
+     * there are no managed users
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> getUsersByManagerIdSafe(Long managerId) {
+        return getUsersByManagerId(managerId, false);
+    }
+
+    /**
+     * Get the direct reports of a manager, or their whole reporting subtree when
+     * includeIndirect is set. Validation is answered from the org hierarchy
+     * index, so only the reports themselves are read from the database.
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> getUsersByManagerId(Long managerId, boolean includeIndirect) {
         // Input validation
         if (managerId == null || managerId <= 0) {
             throw new BadRequestException("Manager ID must be a positive number");
         }
 
         // Check if manager exists
-        User manager = userRepository.findById(managerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Manager not found with id: " + managerId));
+        if (!orgHierarchyIndex.contains(managerId)) {
+            throw new ResourceNotFoundException("Manager not found with id: " + managerId);
+        }
 
         // Validate manager has appropriate role
-        if (!hasManagerRole(manager)) {
+        if (!orgHierarchyIndex.hasAnyRole(managerId, UserRole.MANAGER, UserRole.ADMIN)) {
             throw new BadRequestException("User with id " + managerId + " is not a manager or admin");
         }
 
         // Check if manager is active
-        if (!manager.isActive()) {
+        if (!orgHierarchyIndex.isActive(managerId)) {
             throw new BadRequestException("Manager with id " + managerId + " is not active");
         }
 
-        // Permission check - users can only view their own managed users unless they're
-        // admin
+        // Permission check - users can view their own team and the teams below them
+        // unless they're admin
         User currentUser = getCurrentUser();
-        if (!hasAdminRole(currentUser) && !currentUser.getId().equals(managerId)) {
+        if (!hasAdminRole(currentUser) && !currentUser.getId().equals(managerId)
+                && !orgHierarchyIndex.isInReportingLine(managerId, currentUser.getId())) {
             throw new AccessDeniedException("You can only view users managed by yourself");
         }
 
-        List<User> managedUsers = userRepository.findByManagerIdWithRoles(managerId);
-
-        // Optional: Throw exception if no managed users (or return empty list based on
-        // requirements)
-        if (managedUsers.isEmpty()) {
-            throw new ResourceNotFoundException("No users found under manager with id: " + managerId);
+        List<User> managedUsers;
+        if (includeIndirect) {
+            List<Long> reportIds = orgHierarchyIndex.getAllReports(managerId);
+            managedUsers = reportIds.isEmpty() ? Collections.emptyList()
+                    : userRepository.findAllWithRolesByIdIn(reportIds);
+        } else {
+            managedUsers = userRepository.findByManagerIdWithRoles(managerId);
         }
 
         return managedUsers.stream()
@@ -126,39 +169,21 @@ public class UserService {
     }
 
     /**
-     * Alternative version - returns empty list instead of throwing exception for no
-     * managed users
+     * Get the members of a department (admins, or managers of that department)
      */
     @Transactional(readOnly = true)
-    public List<UserResponse> getUsersByManagerIdSafe(Long managerId) {
-        // Input validation
-        if (managerId == null || managerId <= 0) {
-            throw new BadRequestException("Manager ID must be a positive number");
-        }
-
-        // Check if manager exists
-        User manager = userRepository.findById(managerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Manager not found with id: " + managerId));
-
-        // Validate manager has appropriate role
-        if (!hasManagerRole(manager)) {
-            throw new BadRequestException("User with id " + managerId + " is not a manager or admin");
-        }
-
-        // Check if manager is active
-        if (!manager.isActive()) {
-            throw new BadRequestException("Manager with id " + managerId + " is not active");
-        }
-
-        // Permission check
+    public List<UserResponse> getDepartmentRoster(String department) {
         User currentUser = getCurrentUser();
-        if (!hasAdminRole(currentUser) && !currentUser.getId().equals(managerId)) {
-            throw new AccessDeniedException("You can only view users managed by yourself");
+        if (!hasAdminRole(currentUser)
+                && !(hasManagerRole(currentUser) && department.equals(currentUser.getDepartment()))) {
+            throw new AccessDeniedException("You can only view the roster of your own department");
         }
 
-        // Return managed users (empty list if none found)
-        return userRepository.findByManagerIdWithRoles(managerId)
-                .stream()
+        List<Long> memberIds = orgHierarchyIndex.getDepartmentRoster(department);
+        if (memberIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return userRepository.findAllWithRolesByIdIn(memberIds).stream()
                 .map(this::convertToUserResponse)
                 .collect(Collectors.toList());
     }
@@ -0,0 +1,56 @@
+package com.sap.fsad.leaveApp.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over values that are already uniformly hashed (such as
+ * SHA-256 digests), supplied as two 64-bit halves. Answers "definitely absent"
+ * or "possibly present"; entries cannot be removed, so callers rebuild it when
+ * the underlying set shrinks.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int expected = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+    }
+
+    public void put(long hash1, long hash2) {
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = bitIndex(hash1, hash2, i);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(long hash1, long hash2) {
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = bitIndex(hash1, hash2, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Kirsch-Mitzenmacher double hashing: k indexes from two independent hashes
+    private long bitIndex(long hash1, long hash2, int i) {
+        return Math.floorMod(hash1 + i * hash2, bitCount);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sap.fsad.leaveApp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.sap.fsad.leaveApp.exception.BadRequestException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Encodes and decodes opaque keyset-pagination cursors made of a timestamp
+ * and a tie-breaking entity ID
+ */
+public final class CursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtil() {
+    }
+
+    public static String encode(LocalDateTime timestamp, Long id) {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final LocalDateTime timestamp;
+        private final Long id;
+    }
+}
@@ -0,0 +1,87 @@
+package com.sap.fsad.leaveApp.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes an RFC 5545 calendar of all-day events straight to a writer: CRLF
+ * line endings, text values escaped and lines folded at 75 octets.
+ */
+public final class ICalendarWriter {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final Writer out;
+
+    public ICalendarWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void begin(String calendarName) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//LeaveScheduler//Leave Calendar//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + escape(calendarName));
+    }
+
+    /**
+     * An all-day event from startDate to endDate inclusive. Status is
+     * CONFIRMED, TENTATIVE or CANCELLED.
+     */
+    public void event(String uid, Instant stamp, LocalDate startDate, LocalDate endDate, String summary,
+            String status) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid);
+        line("DTSTAMP:" + TIMESTAMP.format(stamp));
+        line("DTSTART;VALUE=DATE:" + DATE.format(startDate));
+        // DTEND of an all-day event is exclusive
+        line("DTEND;VALUE=DATE:" + DATE.format(endDate.plusDays(1)));
+        line("SUMMARY:" + escape(summary));
+        line("STATUS:" + status);
+        line("TRANSP:TRANSPARENT");
+        line("END:VEVENT");
+    }
+
+    public void end() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    private void line(String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length();) {
+            int codePoint = content.codePointAt(i);
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            // Continuation lines start with a space, which counts towards their length
+            if (octets + width > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(Character.toChars(codePoint));
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        out.write("\r\n");
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+}
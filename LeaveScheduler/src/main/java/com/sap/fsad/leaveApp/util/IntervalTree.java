@@ -0,0 +1,183 @@
+package com.sap.fsad.leaveApp.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable set of closed date intervals, each identified by a unique id.
+ * Stored as a treap ordered by (start, id) in which every node also records
+ * the latest end in its subtree, so overlap queries skip subtrees that end
+ * before the range. Adding or removing an interval returns a new tree that
+ * shares all but O(log n) nodes with the old one, so readers can use a tree
+ * without locking while a writer builds the next one.
+ */
+public final class IntervalTree<T> {
+
+    private static final IntervalTree<?> EMPTY = new IntervalTree<>(null, 0);
+
+    private final Node<T> root;
+    private final int size;
+
+    private IntervalTree(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> IntervalTree<T> empty() {
+        return (IntervalTree<T>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * A tree that also holds the given interval. An interval with the same id
+     * and start is replaced.
+     */
+    public IntervalTree<T> with(long id, LocalDate start, LocalDate end, T value) {
+        long startDay = start.toEpochDay();
+        Split<T> lower = split(root, startDay, id);
+        Split<T> upper = split(lower.right, startDay, id + 1);
+        Node<T> node = new Node<>(startDay, end.toEpochDay(), id, value, null, null);
+        return new IntervalTree<>(merge(merge(lower.left, node), upper.right),
+                upper.left == null ? size + 1 : size);
+    }
+
+    /**
+     * A tree without the interval with the given id and start
+     */
+    public IntervalTree<T> without(long id, LocalDate start) {
+        long startDay = start.toEpochDay();
+        Split<T> lower = split(root, startDay, id);
+        Split<T> upper = split(lower.right, startDay, id + 1);
+        if (upper.left == null) {
+            return this;
+        }
+        return new IntervalTree<>(merge(lower.left, upper.right), size - 1);
+    }
+
+    /**
+     * Values of the intervals that share at least one day with [from, to], in
+     * order of start date
+     */
+    public List<T> overlapping(LocalDate from, LocalDate to) {
+        List<T> result = new ArrayList<>();
+        collect(root, from.toEpochDay(), to.toEpochDay(), result);
+        return result;
+    }
+
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return findAny(root, from.toEpochDay(), to.toEpochDay());
+    }
+
+    private static <T> void collect(Node<T> node, long from, long to, List<T> result) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.start > to) {
+            return;
+        }
+        if (node.end >= from) {
+            result.add(node.value);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private static <T> boolean findAny(Node<T> node, long from, long to) {
+        while (node != null && node.maxEnd >= from) {
+            if (node.start <= to && node.end >= from) {
+                return true;
+            }
+            // If the left subtree reaches from, an overlap is there or nowhere: an
+            // interval there that misses the range starts after to, as does
+            // everything to its right
+            if (node.left != null && node.left.maxEnd >= from) {
+                node = node.left;
+            } else if (node.start > to) {
+                return false;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    // Nodes before (start, id) go left, the rest go right
+    private static <T> Split<T> split(Node<T> node, long start, long id) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        if (node.start < start || (node.start == start && node.id < id)) {
+            Split<T> rest = split(node.right, start, id);
+            return new Split<>(node.withChildren(node.left, rest.left), rest.right);
+        }
+        Split<T> rest = split(node.left, start, id);
+        return new Split<>(rest.left, node.withChildren(rest.right, node.right));
+    }
+
+    // Every node of left orders before every node of right
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.withChildren(left.left, merge(left.right, right));
+        }
+        return right.withChildren(merge(left, right.left), right.right);
+    }
+
+    private static final class Split<T> {
+        private final Node<T> left;
+        private final Node<T> right;
+
+        private Split(Node<T> left, Node<T> right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private static final class Node<T> {
+        private final long start;
+        private final long end;
+        private final long id;
+        private final T value;
+        private final int priority;
+        private final long maxEnd;
+        private final Node<T> left;
+        private final Node<T> right;
+
+        private Node(long start, long end, long id, T value, Node<T> left, Node<T> right) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            // Derived from the id, so a node keeps its priority when it is copied
+            this.priority = Long.hashCode(id * 0x9E3779B97F4A7C15L);
+            this.left = left;
+            this.right = right;
+            long max = end;
+            if (left != null && left.maxEnd > max) {
+                max = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > max) {
+                max = right.maxEnd;
+            }
+            this.maxEnd = max;
+        }
+
+        private Node<T> withChildren(Node<T> left, Node<T> right) {
+            return new Node<>(start, end, id, value, left, right);
+        }
+    }
+}
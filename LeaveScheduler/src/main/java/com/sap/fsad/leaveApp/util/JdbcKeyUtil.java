@@ -0,0 +1,26 @@
+package com.sap.fsad.leaveApp.util;
+
+import java.util.Map;
+
+/**
+ * Reads generated keys returned by batched JDBC inserts
+ */
+public final class JdbcKeyUtil {
+
+    private JdbcKeyUtil() {
+    }
+
+    /**
+     * The generated id in one row of a KeyHolder key list, or null if the
+     * row holds no numeric value
+     */
+    public static Long extractId(Map<String, Object> key) {
+        // Drivers differ in how they name the generated column
+        for (Object value : key.values()) {
+            if (value instanceof Number number) {
+                return number.longValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,195 @@
+package com.sap.fsad.leaveApp.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Reads CSV and XLSX files one row at a time, so memory use does not grow with
+ * the file. XLSX sheets are parsed with POI's SAX event API instead of loading
+ * a workbook. Rows are numbered from 1 as in a spreadsheet and blank rows are
+ * skipped.
+ */
+public final class SpreadsheetRowReader {
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void row(long rowNumber, List<String> cells);
+    }
+
+    private SpreadsheetRowReader() {
+    }
+
+    public static boolean isXlsx(String fileName) {
+        return fileName != null && fileName.toLowerCase().endsWith(".xlsx");
+    }
+
+    public static void read(File file, boolean xlsx, RowHandler handler) throws IOException {
+        if (xlsx) {
+            readXlsx(file, handler);
+        } else {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                readCsv(in, handler);
+            }
+        }
+    }
+
+    /**
+     * RFC 4180 CSV: quoted fields may contain commas, doubled quotes and line
+     * breaks. A leading UTF-8 byte order mark is ignored. Input that ends
+     * inside a quoted field is rejected rather than read as one long field.
+     */
+    public static void readCsv(InputStream in, RowHandler handler) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> cells = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        long rowNumber = 1;
+        long quoteRow = 0;
+
+        int c = reader.read();
+        if (c == '\uFEFF') {
+            c = reader.read();
+        }
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+                quoteRow = rowNumber;
+                fieldStarted = true;
+            } else if (c == ',') {
+                cells.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (fieldStarted || field.length() > 0) {
+                    cells.add(field.toString());
+                }
+                emit(rowNumber++, cells, handler);
+                cells = new ArrayList<>();
+                field.setLength(0);
+                fieldStarted = false;
+            } else {
+                field.append((char) c);
+                fieldStarted = true;
+            }
+            c = reader.read();
+        }
+        if (quoted) {
+            throw new IOException("Row " + quoteRow + ": quoted field is not closed before the end of the file");
+        }
+        if (fieldStarted || field.length() > 0) {
+            cells.add(field.toString());
+        }
+        emit(rowNumber, cells, handler);
+    }
+
+    /**
+     * Stream the first sheet of a workbook
+     */
+    public static void readXlsx(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = xssfReader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                DataFormatter formatter = new DataFormatter();
+                // Dates in the built-in short format come out as ISO dates rather than m/d/yy
+                formatter.addFormat("m/d/yy", new java.text.SimpleDateFormat("yyyy-MM-dd"));
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                        new RowCollector(handler), formatter, false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("Could not read workbook: " + e.getMessage(), e);
+        } catch (javax.xml.parsers.ParserConfigurationException e) {
+            throw new IllegalStateException("XML parser is not available", e);
+        }
+    }
+
+    private static void emit(long rowNumber, List<String> cells, RowHandler handler) {
+        for (String cell : cells) {
+            if (!cell.isBlank()) {
+                handler.row(rowNumber, cells);
+                return;
+            }
+        }
+    }
+
+    private static final class RowCollector implements SheetContentsHandler {
+        private final RowHandler handler;
+        private List<String> cells = new ArrayList<>();
+
+        private RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            emit(rowNum + 1L, cells, handler);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // Empty cells are not reported, so pad up to this cell's column
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue != null ? formattedValue : "");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.sap.fsad.leaveApp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 hashing for tokens that are stored or compared server-side, so raw
+ * token values never reach the database
+ */
+public final class TokenHashUtil {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private TokenHashUtil() {
+    }
+
+    /**
+     * Lower-case hex SHA-256 of the token, matching the format already stored
+     * in blacklisted_tokens
+     */
+    public static String sha256Hex(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -4,32 +4,39 @@ import { useEffect, useState } from "react";
 const LeaveHistory = () => {
 	const [leaveHistory, setLeaveHistory] = useState([]);
 	const [loading, setLoading] = useState(true);
+	const [loadingMore, setLoadingMore] = useState(false);
 	const [error, setError] = useState("");
 	const [filter, setFilter] = useState({ startDate: "", endDate: "" });
+	const [appliedFilter, setAppliedFilter] = useState({});
+	const [nextCursor, setNextCursor] = useState(null);
 
-	const fetchLeaveHistory = async (params = {}) => {
-		setLoading(true);
+	const fetchLeaveHistory = async (params = {}, cursor = null) => {
+		if (cursor) setLoadingMore(true);
+		else setLoading(true);
 		setError("");
 		try {
 			const token = localStorage.getItem("authToken");
 			const query = [];
 			if (params.startDate) query.push(`startDate=${params.startDate}`);
 			if (params.endDate) query.push(`endDate=${params.endDate}`);
+			if (cursor) query.push(`cursor=${encodeURIComponent(cursor)}`);
 			const url =
 				`${
 					import.meta.env.VITE_API_BASE_URL
-				}/api/leave-applications/filter-history` +
+				}/api/leave-applications/history/page` +
 				(query.length ? `?${query.join("&")}` : "");
 			const res = await axios.get(url, {
 				headers: { Authorization: `Bearer ${token}` },
 			});
-			const data = Array.isArray(res.data) ? res.data : [];
-			setLeaveHistory(data);
+			const items = Array.isArray(res.data?.items) ? res.data.items : [];
+			setLeaveHistory((prev) => (cursor ? [...prev, ...items] : items));
+			setNextCursor(res.data?.hasMore ? res.data.nextCursor : null);
 		} catch (err) {
 			setError(err.response?.data?.message || "Failed to load leave history.");
-			setLeaveHistory([]); // Defensive: always set to array on error
+			if (!cursor) setLeaveHistory([]); // Defensive: always set to array on error
 		} finally {
 			setLoading(false);
+			setLoadingMore(false);
 		}
 	};
 
@@ -44,6 +51,7 @@ const LeaveHistory = () => {
 
 	const handleFilterSubmit = (e) => {
 		e.preventDefault();
+		setAppliedFilter(filter);
 		fetchLeaveHistory(filter);
 	};
 
@@ -139,6 +147,18 @@ const LeaveHistory = () => {
 					</table>
 				)}
 			</div>
+			{!loading && nextCursor && (
+				<div className="flex justify-center mt-3">
+					<button
+						type="button"
+						onClick={() => fetchLeaveHistory(appliedFilter, nextCursor)}
+						disabled={loadingMore}
+						className="px-4 py-2 bg-blue-600 text-white rounded hover:bg-blue-700 transition font-semibold disabled:opacity-50"
+					>
+						{loadingMore ? "Loading..." : "Load more"}
+					</button>
+				</div>
+			)}
 		</div>
 	);
 };
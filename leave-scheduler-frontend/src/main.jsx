@@ -1,6 +1,7 @@
 import { StrictMode } from "react";
 import { createRoot } from "react-dom/client";
 import AppRouter from "./router";
+import "./services/authInterceptor";
 import "./styles/index.css";
 
 createRoot(document.getElementById("root")).render(
@@ -2,32 +2,71 @@ import axios from "axios";
 import { useState } from "react";
 import { FaFileAlt, FaFileExcel, FaFilePdf } from "react-icons/fa";
 
+const LEAVE_TYPES = [
+	"CASUAL",
+	"SICK",
+	"EARNED",
+	"MATERNITY",
+	"PATERNITY",
+	"BEREAVEMENT",
+	"UNPAID",
+	"COMPENSATORY",
+	"SPECIAL",
+];
+
+const LEAVE_STATUSES = ["PENDING", "APPROVED", "REJECTED", "WITHDRAWN"];
+
+const PAGE_SIZE = 50;
+
+// Report job polling starts at one second and backs off, giving up after five minutes
+const JOB_POLL_INITIAL_MS = 1000;
+const JOB_POLL_MAX_MS = 5000;
+const JOB_POLL_TIMEOUT_MS = 5 * 60 * 1000;
+
+const EMPTY_FILTERS = {
+	startDate: "",
+	endDate: "",
+	department: "",
+	leaveType: "",
+	status: "",
+};
+
 const ReportsPage = () => {
 	const [tableType, setTableType] = useState(null);
 	const [tableData, setTableData] = useState([]);
 	const [tableLoading, setTableLoading] = useState(false);
+	const [filters, setFilters] = useState(EMPTY_FILTERS);
+	const [pageInfo, setPageInfo] = useState(null);
 
 	const handleDownload = async (type) => {
-		let url = "";
-		let filename = "report";
-		let contentType = "application/octet-stream";
-		if (type === "leave-excel") {
-			url = `${
-				import.meta.env.VITE_API_BASE_URL
-			}/api/reports/leave-usage/export/excel`;
-			filename = "leave-usage.xlsx";
-		} else if (type === "leave-pdf") {
-			url = `${
-				import.meta.env.VITE_API_BASE_URL
-			}/api/reports/leave-usage/export/pdf`;
-			filename = "leave-usage.pdf";
-			contentType = "application/pdf";
-		}
+		const baseUrl = `${import.meta.env.VITE_API_BASE_URL}/api/reports/jobs`;
+		const format = type === "leave-pdf" ? "PDF" : "EXCEL";
+		const filename = type === "leave-pdf" ? "leave-usage.pdf" : "leave-usage.xlsx";
+		const contentType =
+			type === "leave-pdf" ? "application/pdf" : "application/octet-stream";
 		try {
 			const token = localStorage.getItem("authToken");
-			const response = await axios.get(url, {
+			const headers = { Authorization: `Bearer ${token}` };
+			// Reports are generated in the background; poll until the file is ready
+			let { data: job } = await axios.post(baseUrl, { format }, { headers });
+			const deadline = Date.now() + JOB_POLL_TIMEOUT_MS;
+			let delay = JOB_POLL_INITIAL_MS;
+			while (job.status === "QUEUED" || job.status === "RUNNING") {
+				if (Date.now() + delay > deadline) {
+					throw new Error(
+						"The report is taking too long to generate. Please try again later."
+					);
+				}
+				await new Promise((resolve) => setTimeout(resolve, delay));
+				delay = Math.min(delay * 2, JOB_POLL_MAX_MS);
+				({ data: job } = await axios.get(`${baseUrl}/${job.id}`, { headers }));
+			}
+			if (job.status !== "COMPLETED") {
+				throw new Error(job.message || "Report generation failed");
+			}
+			const response = await axios.get(`${baseUrl}/${job.id}/download`, {
 				responseType: "blob",
-				headers: { Authorization: `Bearer ${token}` },
+				headers,
 			});
 			const blob = new Blob([response.data], { type: contentType });
 			const link = document.createElement("a");
@@ -36,54 +75,198 @@ const ReportsPage = () => {
 			document.body.appendChild(link);
 			link.click();
 			document.body.removeChild(link);
-		} catch {
-			alert("Failed to download report");
+		} catch (err) {
+			// Request failures keep the generic message; job failures and timeouts explain themselves
+			alert(
+				err.response
+					? "Failed to download report"
+					: err.message || "Failed to download report"
+			);
 		}
 	};
 
-	const handleShowTable = async (type) => {
-		if (tableType === type) {
-			setTableType(null);
-			setTableData([]);
-			return;
-		}
-		setTableType(type);
+	const fetchTable = async (type, page = 0, criteria = filters) => {
 		setTableLoading(true);
 		let url = "";
-		if (type === "leave-usage")
-			url = `${import.meta.env.VITE_API_BASE_URL}/api/reports/leave-usage`;
-		else if (type === "pending-approvals")
-			url = `${
-				import.meta.env.VITE_API_BASE_URL
-			}/api/reports/pending-approvals`;
-		else if (type === "holiday-schedule")
+		const params = {};
+		if (type === "leave-usage" || type === "pending-approvals") {
+			url = `${import.meta.env.VITE_API_BASE_URL}/api/reports/${type}`;
+			params.page = page;
+			params.size = PAGE_SIZE;
+			Object.entries(criteria).forEach(([key, value]) => {
+				// Pending approvals are always PENDING
+				if (value && !(key === "status" && type === "pending-approvals")) {
+					params[key] = value;
+				}
+			});
+		} else if (type === "holiday-schedule")
 			url = `${import.meta.env.VITE_API_BASE_URL}/api/reports/holiday-schedule`;
 		try {
 			const token = localStorage.getItem("authToken");
 			const response = await axios.get(url, {
 				headers: { Authorization: `Bearer ${token}` },
+				params,
 			});
 			const data = response.data;
 			if (Array.isArray(data)) {
 				setTableData(data);
+				setPageInfo(null);
 			} else if (
 				data &&
 				typeof data === "object" &&
 				Array.isArray(data.content)
 			) {
-				// Handle Spring Data paged response
+				// Paged response
 				setTableData(data.content);
+				setPageInfo({
+					page: data.page,
+					totalPages: data.totalPages,
+					totalElements: data.totalElements,
+				});
 			} else {
 				setTableData([]);
+				setPageInfo(null);
 			}
 		} catch {
 			setTableData([]);
+			setPageInfo(null);
 			alert("Failed to fetch data");
 		} finally {
 			setTableLoading(false);
 		}
 	};
 
+	const handleShowTable = (type) => {
+		if (tableType === type) {
+			setTableType(null);
+			setTableData([]);
+			setPageInfo(null);
+			return;
+		}
+		setTableType(type);
+		setFilters(EMPTY_FILTERS);
+		fetchTable(type, 0, EMPTY_FILTERS);
+	};
+
+	const handleFilterChange = (e) => {
+		const { name, value } = e.target;
+		setFilters((prev) => ({ ...prev, [name]: value }));
+	};
+
+	const handleFilterSubmit = (e) => {
+		e.preventDefault();
+		fetchTable(tableType, 0);
+	};
+
+	const handleFilterReset = () => {
+		setFilters(EMPTY_FILTERS);
+		fetchTable(tableType, 0, EMPTY_FILTERS);
+	};
+
+	const renderFilters = () => {
+		if (tableType !== "leave-usage" && tableType !== "pending-approvals")
+			return null;
+		return (
+			<form
+				onSubmit={handleFilterSubmit}
+				className="mt-6 flex flex-wrap gap-2 items-center"
+			>
+				<input
+					type="date"
+					name="startDate"
+					value={filters.startDate}
+					onChange={handleFilterChange}
+					className="border rounded px-3 py-2 text-sm"
+				/>
+				<span className="text-gray-500">to</span>
+				<input
+					type="date"
+					name="endDate"
+					value={filters.endDate}
+					onChange={handleFilterChange}
+					className="border rounded px-3 py-2 text-sm"
+				/>
+				<input
+					type="text"
+					name="department"
+					value={filters.department}
+					onChange={handleFilterChange}
+					placeholder="Department"
+					className="border rounded px-3 py-2 text-sm"
+				/>
+				<select
+					name="leaveType"
+					value={filters.leaveType}
+					onChange={handleFilterChange}
+					className="border rounded px-3 py-2 text-sm"
+				>
+					<option value="">All types</option>
+					{LEAVE_TYPES.map((type) => (
+						<option key={type} value={type}>
+							{type}
+						</option>
+					))}
+				</select>
+				{tableType === "leave-usage" && (
+					<select
+						name="status"
+						value={filters.status}
+						onChange={handleFilterChange}
+						className="border rounded px-3 py-2 text-sm"
+					>
+						<option value="">All statuses</option>
+						{LEAVE_STATUSES.map((status) => (
+							<option key={status} value={status}>
+								{status}
+							</option>
+						))}
+					</select>
+				)}
+				<button
+					type="submit"
+					className="px-4 py-2 bg-blue-600 text-white rounded hover:bg-blue-700 transition font-semibold"
+				>
+					Filter
+				</button>
+				<button
+					type="button"
+					onClick={handleFilterReset}
+					className="px-4 py-2 border rounded hover:bg-gray-100 transition"
+				>
+					Reset
+				</button>
+			</form>
+		);
+	};
+
+	const renderPager = () => {
+		if (!pageInfo || pageInfo.totalPages <= 1) return null;
+		return (
+			<div className="mt-3 flex items-center justify-center gap-3 text-sm">
+				<button
+					type="button"
+					onClick={() => fetchTable(tableType, pageInfo.page - 1)}
+					disabled={tableLoading || pageInfo.page <= 0}
+					className="px-3 py-1 border rounded disabled:opacity-50"
+				>
+					Previous
+				</button>
+				<span>
+					Page {pageInfo.page + 1} of {pageInfo.totalPages} (
+					{pageInfo.totalElements} rows)
+				</span>
+				<button
+					type="button"
+					onClick={() => fetchTable(tableType, pageInfo.page + 1)}
+					disabled={tableLoading || pageInfo.page + 1 >= pageInfo.totalPages}
+					className="px-3 py-1 border rounded disabled:opacity-50"
+				>
+					Next
+				</button>
+			</div>
+		);
+	};
+
 	const renderTable = () => {
 		if (!tableType || tableData.length === 0) return null;
 		if (tableType === "leave-usage" || tableType === "pending-approvals") {
@@ -103,7 +286,7 @@ const ReportsPage = () => {
 							{tableData.map((leave, i) => (
 								<tr key={leave.id || i}>
 									<td className="px-4 py-2 border">
-										{leave.user?.fullName || leave.user?.username || "-"}
+										{leave.employeeName || "-"}
 									</td>
 									<td className="px-4 py-2 border">{leave.leaveType}</td>
 									<td className="px-4 py-2 border">{leave.startDate}</td>
@@ -197,6 +380,7 @@ const ReportsPage = () => {
 					(Table)
 				</button>
 			</div>
+			{renderFilters()}
 			{tableLoading && (
 				<div className="mt-4 text-center text-accent-blue">Loading...</div>
 			)}
@@ -204,6 +388,7 @@ const ReportsPage = () => {
 				<div className="mt-4 text-center text-gray-500">No data found.</div>
 			)}
 			{renderTable()}
+			{!tableLoading && renderPager()}
 		</div>
 	);
 };
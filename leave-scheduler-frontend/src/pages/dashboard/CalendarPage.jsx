@@ -1,3 +1,4 @@
+import axios from "axios";
 import { useEffect, useState } from "react";
 import Calendar from "react-calendar";
 import "react-calendar/dist/Calendar.css";
@@ -17,15 +18,14 @@ const CalendarPage = () => {
 		const year = date.getFullYear();
 		let url = `${import.meta.env.VITE_API_BASE_URL}/api/leave-applications/calendar?month=${month}&year=${year}`;
 		if (userId) url += `&userId=${userId}`;
-		fetch(url, {
-			method: "GET",
-			headers: {
-				Authorization: `Bearer ${localStorage.getItem("authToken")}`,
-			},
-		})
-			.then((res) => res.json())
-			.then((data) => {
-				setEvents(data || []);
+		axios
+			.get(url, {
+				headers: {
+					Authorization: `Bearer ${localStorage.getItem("authToken")}`,
+				},
+			})
+			.then((res) => {
+				setEvents(Array.isArray(res.data) ? res.data : []);
 			})
 			.catch(() => setEvents([]));
 	}, [date]);
@@ -27,6 +27,7 @@ const ApplyLeave = () => {
 	const [loading, setLoading] = useState(false);
 	const [error, setError] = useState("");
 	const [success, setSuccess] = useState("");
+	const [warning, setWarning] = useState("");
 	const navigate = useNavigate();
 
 	const handleChange = (e) => {
@@ -39,16 +40,23 @@ const ApplyLeave = () => {
 		setLoading(true);
 		setError("");
 		setSuccess("");
+		setWarning("");
 		try {
 			const token = localStorage.getItem("authToken");
-			await axios.post(
+			const res = await axios.post(
 				`${import.meta.env.VITE_API_BASE_URL}/api/leave-applications`,
 				form,
 				{ headers: { Authorization: `Bearer ${token}` } }
 			);
 			setSuccess("Leave application submitted successfully.");
 			setLoading(false);
-			setTimeout(() => navigate("/leave-applications"), 1200);
+			// Give the applicant time to read the staffing warning before leaving
+			if (res.data?.coverageWarning) {
+				setWarning(res.data.coverageWarning);
+				setTimeout(() => navigate("/leave-applications"), 5000);
+			} else {
+				setTimeout(() => navigate("/leave-applications"), 1200);
+			}
 		} catch (err) {
 			setError(
 				err.response?.data?.message || "Failed to submit leave application."
@@ -62,6 +70,7 @@ const ApplyLeave = () => {
 			<h2 className="text-xl font-semibold mb-4">Apply for Leave</h2>
 			{error && <p className="text-red-600 mb-2">{error}</p>}
 			{success && <p className="text-green-600 mb-2">{success}</p>}
+			{warning && <p className="text-yellow-700 mb-2">{warning}</p>}
 			<form onSubmit={handleSubmit} className="space-y-3">
 				<div>
 					<label className="block mb-1 font-medium">Leave Type</label>
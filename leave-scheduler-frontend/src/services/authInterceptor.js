@@ -0,0 +1,64 @@
+// src/services/authInterceptor.js
+import axios from "axios";
+import { useAuthStore } from "../state/authStore";
+import {
+	getRefreshToken,
+	refresh,
+	setRefreshToken,
+	setToken,
+} from "./authService";
+
+// Access tokens are short-lived, so an expired one is renewed with the refresh
+// token and the failed request is retried once. Concurrent failures share a
+// single refresh call, since each refresh token can only be used once.
+let refreshPromise = null;
+
+const isAuthEndpoint = (url = "") =>
+	url.includes("/api/auth/login") ||
+	url.includes("/api/auth/refresh") ||
+	url.includes("/api/auth/logout");
+
+const refreshAccessToken = () => {
+	if (!refreshPromise) {
+		refreshPromise = refresh(getRefreshToken())
+			.then((data) => {
+				setToken(data.token);
+				setRefreshToken(data.refreshToken);
+				useAuthStore.setState({ token: data.token });
+				return data.token;
+			})
+			.finally(() => {
+				refreshPromise = null;
+			});
+	}
+	return refreshPromise;
+};
+
+axios.interceptors.response.use(
+	(response) => response,
+	async (error) => {
+		const { config, response } = error;
+		if (
+			!config ||
+			!response ||
+			(response.status !== 401 && response.status !== 403) ||
+			config._retried ||
+			config.skipAuthRefresh ||
+			isAuthEndpoint(config.url) ||
+			!getRefreshToken()
+		) {
+			return Promise.reject(error);
+		}
+
+		config._retried = true;
+		let token;
+		try {
+			token = await refreshAccessToken();
+		} catch {
+			useAuthStore.getState().logout();
+			return Promise.reject(error);
+		}
+		config.headers.Authorization = `Bearer ${token}`;
+		return axios(config);
+	}
+);
@@ -27,8 +27,32 @@ export const register = async (userData) => {
 	}
 };
 
+export const refresh = async (refreshToken) => {
+	try {
+		const response = await axios.post(`${API_BASE_URL}/api/auth/refresh`, {
+			refreshToken,
+		});
+		return response.data;
+	} catch (error) {
+		throw error.response ? error.response.data : new Error("Network error");
+	}
+};
+
 export const logout = () => {
+	const token = getToken();
+	const refreshToken = getRefreshToken();
 	localStorage.removeItem("authToken");
+	localStorage.removeItem("refreshToken");
+	// Best effort: revoke the session server-side, the local logout does not depend on it
+	if (token) {
+		axios
+			.post(
+				`${API_BASE_URL}/api/auth/logout`,
+				refreshToken ? { refreshToken } : undefined,
+				{ headers: { Authorization: `Bearer ${token}` }, skipAuthRefresh: true }
+			)
+			.catch(() => {});
+	}
 };
 
 export const setUser = async (user) => {
@@ -47,6 +71,18 @@ export const getToken = () => {
 	return localStorage.getItem("authToken");
 };
 
+export const setRefreshToken = (refreshToken) => {
+	if (refreshToken) {
+		localStorage.setItem("refreshToken", refreshToken);
+	} else {
+		localStorage.removeItem("refreshToken");
+	}
+};
+
+export const getRefreshToken = () => {
+	return localStorage.getItem("refreshToken");
+};
+
 export const isAuthenticated = () => {
 	return !!getToken();
 };
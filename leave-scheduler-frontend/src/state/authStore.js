@@ -4,6 +4,7 @@ import {
 	login,
 	logout,
 	register,
+	setRefreshToken,
 	setToken,
 	setUser,
 } from "../services/authService";
@@ -16,6 +17,7 @@ export const useAuthStore = create((set) => ({
 		try {
 			const data = await login(credentials);
 			setToken(data.token);
+			setRefreshToken(data.refreshToken);
 			let user = data.user;
 			// If user is not present in login response, construct from JwtResponse DTO
 			if (!user && data.token && data.id && data.username) {